@@ -0,0 +1,22 @@
+package com.useronboard.service.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Time source configuration
+ * Token issuance and expiry checks take the Clock bean so tests can pin time
+ */
+@Configuration
+public class ClockConfig {
+
+    /**
+     * System clock in the default zone, consistent with LocalDateTime.now() used for entity timestamps
+     */
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
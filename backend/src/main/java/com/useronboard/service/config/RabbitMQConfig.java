@@ -18,6 +18,7 @@ import org.springframework.context.annotation.Configuration;
 public class RabbitMQConfig {
 
     public static final String USER_EVENTS_EXCHANGE = "user.events";
+    public static final String REFRESH_TOKEN_EVICTIONS_EXCHANGE = "auth.refresh-token.evictions";
 
     // Queue names
     public static final String USER_REGISTERED_QUEUE = "user.registered.queue";
@@ -28,6 +29,7 @@ public class RabbitMQConfig {
     public static final String USER_REGISTERED_ROUTING_KEY = "user.registered";
     public static final String USER_APPROVED_ROUTING_KEY = "user.approved";
     public static final String USER_REJECTED_ROUTING_KEY = "user.rejected";
+    public static final String ACCESS_TOKENS_REVOKED_ROUTING_KEY = "user.tokens.revoked";
 
     /**
      * Topic exchange for user events
@@ -70,6 +72,59 @@ public class RabbitMQConfig {
             .build();
     }
 
+    /**
+     * Per-instance queue receiving every user.registered event, so each node's
+     * registered-email filter learns about registrations made on other nodes
+     */
+    @Bean
+    public Queue registeredEmailsBroadcastQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding registeredEmailsBroadcastBinding() {
+        return BindingBuilder
+            .bind(registeredEmailsBroadcastQueue())
+            .to(userEventsExchange())
+            .with(USER_REGISTERED_ROUTING_KEY);
+    }
+
+    /**
+     * Per-instance queue receiving access-token revocations, so every node's denylist rejects them
+     */
+    @Bean
+    public Queue accessTokenRevocationsQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding accessTokenRevocationsBinding() {
+        return BindingBuilder
+            .bind(accessTokenRevocationsQueue())
+            .to(userEventsExchange())
+            .with(ACCESS_TOKENS_REVOKED_ROUTING_KEY);
+    }
+
+    /**
+     * Fanout for refresh-token cache evictions; every node binds its own anonymous queue
+     */
+    @Bean
+    public FanoutExchange refreshTokenEvictionsExchange() {
+        return new FanoutExchange(REFRESH_TOKEN_EVICTIONS_EXCHANGE, true, false);
+    }
+
+    @Bean
+    public Queue refreshTokenEvictionsQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding refreshTokenEvictionsBinding() {
+        return BindingBuilder
+            .bind(refreshTokenEvictionsQueue())
+            .to(refreshTokenEvictionsExchange());
+    }
+
     /**
      * Dead letter exchange for failed messages
      */
@@ -3,7 +3,10 @@ package com.useronboard.service.controller;
 import com.useronboard.service.dto.AdminActionRequest;
 import com.useronboard.service.dto.ApiResponse;
 import com.useronboard.service.dto.UserResponse;
+import com.useronboard.service.exception.DomainException;
+import com.useronboard.service.security.FailedLoginTracker;
 import com.useronboard.service.service.UserService;
+import com.useronboard.service.util.HeavyHitters;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,7 +20,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Admin controller for user management operations
@@ -32,9 +37,11 @@ public class AdminController {
     private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
 
     private final UserService userService;
+    private final FailedLoginTracker failedLoginTracker;
 
-    public AdminController(UserService userService) {
+    public AdminController(UserService userService, FailedLoginTracker failedLoginTracker) {
         this.userService = userService;
+        this.failedLoginTracker = failedLoginTracker;
     }
 
     /**
@@ -107,14 +114,9 @@ public class AdminController {
 
             return ResponseEntity.ok(ApiResponse.success("User approved successfully", approvedUser));
 
-        } catch (IllegalArgumentException e) {
-            logger.warn("Failed to approve user {}: {}", userId, e.getMessage());
-            return ResponseEntity.status(404)
-                .body(ApiResponse.error(e.getMessage()));
-        } catch (IllegalStateException e) {
-            logger.warn("Failed to approve user {}: {}", userId, e.getMessage());
-            return ResponseEntity.status(400)
-                .body(ApiResponse.error(e.getMessage()));
+        } catch (DomainException e) {
+            // Unknown user or wrong status; mapped by ApiExceptionHandler
+            throw e;
         } catch (Exception e) {
             logger.error("Error approving user: {}", userId, e);
             return ResponseEntity.status(500)
@@ -143,14 +145,9 @@ public class AdminController {
 
             return ResponseEntity.ok(ApiResponse.success("User rejected successfully", rejectedUser));
 
-        } catch (IllegalArgumentException e) {
-            logger.warn("Failed to reject user {}: {}", userId, e.getMessage());
-            return ResponseEntity.status(404)
-                .body(ApiResponse.error(e.getMessage()));
-        } catch (IllegalStateException e) {
-            logger.warn("Failed to reject user {}: {}", userId, e.getMessage());
-            return ResponseEntity.status(400)
-                .body(ApiResponse.error(e.getMessage()));
+        } catch (DomainException e) {
+            // Unknown user or wrong status; mapped by ApiExceptionHandler
+            throw e;
         } catch (Exception e) {
             logger.error("Error rejecting user: {}", userId, e);
             return ResponseEntity.status(500)
@@ -186,6 +183,21 @@ public class AdminController {
         }
     }
 
+    /**
+     * Emails and client IPs with the most recent failed logins (decayed counts, highest first)
+     * GET /api/v1/admin/security/failed-logins
+     */
+    @GetMapping("/security/failed-logins")
+    public ResponseEntity<ApiResponse<Map<String, List<HeavyHitters.Entry>>>> getFailedLoginOffenders() {
+        Map<String, List<HeavyHitters.Entry>> offenders = new LinkedHashMap<>();
+        offenders.put("emails", failedLoginTracker.topEmails());
+        offenders.put("ips", failedLoginTracker.topIps());
+
+        logger.info("Admin {} retrieved failed-login offenders", getCurrentUserId());
+
+        return ResponseEntity.ok(ApiResponse.success("Failed-login offenders retrieved successfully", offenders));
+    }
+
     /**
      * Get current admin user ID from security context
      */
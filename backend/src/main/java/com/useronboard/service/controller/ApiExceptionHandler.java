@@ -0,0 +1,81 @@
+package com.useronboard.service.controller;
+
+import com.useronboard.service.dto.ApiResponse;
+import com.useronboard.service.exception.AccountNotActiveException;
+import com.useronboard.service.exception.BreachedPasswordException;
+import com.useronboard.service.exception.DisposableEmailDomainException;
+import com.useronboard.service.exception.EmailAlreadyRegisteredException;
+import com.useronboard.service.exception.InvalidCredentialsException;
+import com.useronboard.service.exception.InvalidTokenException;
+import com.useronboard.service.exception.InvalidUserStateException;
+import com.useronboard.service.exception.UserNotFoundException;
+import com.useronboard.service.util.RateLimitedLogger;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.Duration;
+
+/**
+ * Maps domain exceptions to API responses in one place
+ * Login failures are already logged (rate-limited) where they are detected; refresh-token failures
+ * are logged here, rate-limited, since any client can present a forged token as often as it likes.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiExceptionHandler.class);
+    private static final RateLimitedLogger authFailureLog = new RateLimitedLogger(logger, 10, Duration.ofSeconds(1));
+
+    @ExceptionHandler(InvalidCredentialsException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidCredentials(InvalidCredentialsException e) {
+        return error(HttpStatus.UNAUTHORIZED, e.getMessage());
+    }
+
+    @ExceptionHandler(AccountNotActiveException.class)
+    public ResponseEntity<ApiResponse<Void>> handleAccountNotActive(AccountNotActiveException e) {
+        return error(HttpStatus.FORBIDDEN, e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidToken(InvalidTokenException e, HttpServletRequest request) {
+        authFailureLog.warn("Token refresh failed from {}: {}", request.getRemoteAddr(), e.getMessage());
+        return error(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+    }
+
+    @ExceptionHandler(EmailAlreadyRegisteredException.class)
+    public ResponseEntity<ApiResponse<Void>> handleEmailAlreadyRegistered(EmailAlreadyRegisteredException e) {
+        logger.warn("User registration failed: {}", e.getMessage());
+        return error(HttpStatus.CONFLICT, e.getMessage());
+    }
+
+    @ExceptionHandler(BreachedPasswordException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBreachedPassword(BreachedPasswordException e) {
+        return error(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(DisposableEmailDomainException.class)
+    public ResponseEntity<ApiResponse<Void>> handleDisposableEmailDomain(DisposableEmailDomainException e) {
+        return error(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleUserNotFound(UserNotFoundException e, HttpServletRequest request) {
+        logger.warn("{} {} failed: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+        return error(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidUserStateException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidUserState(InvalidUserStateException e, HttpServletRequest request) {
+        logger.warn("{} {} failed: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+        return error(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    private static ResponseEntity<ApiResponse<Void>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(ApiResponse.error(message));
+    }
+}
@@ -1,19 +1,38 @@
 package com.useronboard.service.controller;
 
 import com.useronboard.service.dto.*;
+import com.useronboard.service.entity.User;
+import com.useronboard.service.exception.DomainException;
+import com.useronboard.service.exception.InvalidCredentialsException;
+import com.useronboard.service.exception.InvalidTokenException;
+import com.useronboard.service.security.FailedLoginTracker;
+import com.useronboard.service.security.LoginThrottle;
+import com.useronboard.service.security.PasswordHashingExecutor;
 import com.useronboard.service.service.AuthService;
+import com.useronboard.service.service.RefreshCoalescer;
 import com.useronboard.service.service.UserService;
+import com.useronboard.service.util.RateLimitedLogger;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Authentication controller handling registration, login, logout, and token refresh
@@ -25,75 +44,128 @@ import java.util.Optional;
 public class AuthController {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+    // Shed requests arrive at flood rate by definition; log a sample, not each one
+    private static final RateLimitedLogger shedLog = new RateLimitedLogger(logger, 10, Duration.ofSeconds(1));
     private static final String REFRESH_TOKEN_COOKIE_NAME = "refreshToken";
 
     private final UserService userService;
     private final AuthService authService;
-
-    public AuthController(UserService userService, AuthService authService) {
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final LoginThrottle loginThrottle;
+    private final RefreshCoalescer refreshCoalescer;
+    private final FailedLoginTracker failedLoginTracker;
+
+    public AuthController(UserService userService, AuthService authService,
+                          PasswordHashingExecutor passwordHashingExecutor, LoginThrottle loginThrottle,
+                          RefreshCoalescer refreshCoalescer, FailedLoginTracker failedLoginTracker) {
         this.userService = userService;
         this.authService = authService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.loginThrottle = loginThrottle;
+        this.refreshCoalescer = refreshCoalescer;
+        this.failedLoginTracker = failedLoginTracker;
     }
 
     /**
      * Register new user
      * POST /api/v1/auth/register
+     * Only the password hash runs on the hashing pool; the request thread is released meanwhile
      */
     @PostMapping("/register")
-    public ResponseEntity<ApiResponse<UserResponse>> registerUser(@Valid @RequestBody UserRegistrationRequest request) {
-        try {
-            logger.info("User registration request for email: {}", request.getEmail());
+    public CompletableFuture<ResponseEntity<ApiResponse<UserResponse>>> registerUser(@Valid @RequestBody UserRegistrationRequest request) {
+        logger.info("User registration request for email: {}", request.getEmail());
 
-            UserResponse user = userService.registerUser(request);
+        // Refused requests never reach the hashing pool
+        userService.checkRegistration(request);
 
-            logger.info("User registered successfully: {}", user.getEmail());
+        CompletableFuture<String> passwordHash;
+        try {
+            passwordHash = passwordHashingExecutor.encode(request.getPassword());
+        } catch (RejectedExecutionException e) {
+            shedLog.warn("Registration rejected - password hashing queue full");
+            return CompletableFuture.completedFuture(overloaded("Registration"));
+        }
 
-            return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.success("User registered successfully. Please wait for admin approval.", user));
+        return passwordHash.thenApply(hash -> userService.registerUser(request, hash)).handle((user, failure) -> {
+            if (failure == null) {
+                logger.info("User registered successfully: {}", user.getEmail());
+                return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("User registered successfully. Please wait for admin approval.", user));
+            }
 
-        } catch (IllegalArgumentException e) {
-            logger.warn("User registration failed: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                .body(ApiResponse.error(e.getMessage()));
-        } catch (Exception e) {
+            Throwable e = unwrap(failure);
+            if (e instanceof DomainException domainFailure) {
+                // Completes the future exceptionally; ApiExceptionHandler maps it
+                throw domainFailure;
+            } else if (e instanceof DataIntegrityViolationException) {
+                // Unique email index: concurrent duplicate, or the email filter skipped the existence check
+                logger.warn("User registration failed - duplicate email on insert: {}", request.getEmail());
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("User with email " + request.getEmail() + " already exists"));
+            }
             logger.error("Unexpected error during user registration", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ApiResponse.error("Registration failed. Please try again."));
-        }
+        });
     }
 
     /**
      * User login
      * POST /api/v1/auth/login
+     * Only the password check runs on the hashing pool; the request thread is released meanwhile
      */
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<AuthResponse>> loginUser(@Valid @RequestBody LoginRequest request,
-                                                              HttpServletResponse response) {
-        try {
-            logger.info("Login request for email: {}", request.getEmail());
-
-            AuthResponse authResponse = authService.login(request);
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthResponse>>> loginUser(@Valid @RequestBody LoginRequest request,
+                                                                                 HttpServletRequest httpRequest) {
+        logger.info("Login request for email: {}", request.getEmail());
+        // Read on the request thread; the servlet request is not ours once the handler returns
+        String clientIp = httpRequest.getRemoteAddr();
+
+        // Shed abusive sources before any database lookup or hashing
+        long retryAfterSeconds = loginThrottle.acquire(request.getEmail(), clientIp);
+        if (retryAfterSeconds > 0) {
+            shedLog.warn("Login throttled for email: {} from {}", request.getEmail(), clientIp);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(ApiResponse.error("Too many login attempts. Please try again later.")));
+        }
 
-            // Set refresh token as HttpOnly cookie for security
-            setRefreshTokenCookie(response, authResponse.getRefreshToken());
+        Optional<User> candidate = userService.findLoginCandidate(request.getEmail());
+        if (candidate.isEmpty()) {
+            failedLoginTracker.recordFailure(request.getEmail(), clientIp);
+            throw new InvalidCredentialsException();
+        }
+        User user = candidate.get();
 
-            logger.info("User logged in successfully: {}", request.getEmail());
+        CompletableFuture<Boolean> passwordCheck;
+        try {
+            passwordCheck = passwordHashingExecutor.matches(request.getPassword(), user.getPasswordHash());
+        } catch (RejectedExecutionException e) {
+            shedLog.warn("Login rejected - password hashing queue full: {}", request.getEmail());
+            return CompletableFuture.completedFuture(overloaded("Login"));
+        }
 
-            return ResponseEntity.ok(ApiResponse.success("Login successful", authResponse));
+        return passwordCheck.thenApply(matches -> authService.login(user, request.getPassword(), matches))
+            .handle((authResponse, failure) -> {
+                if (failure == null) {
+                    logger.info("User logged in successfully: {}", request.getEmail());
+                    // Set refresh token as HttpOnly cookie for security (as a header: the servlet response is not ours off-thread)
+                    return ResponseEntity.ok()
+                        .header(HttpHeaders.SET_COOKIE, refreshTokenCookie(authResponse.getRefreshToken()).toString())
+                        .body(ApiResponse.success("Login successful", authResponse));
+                }
 
-        } catch (IllegalArgumentException e) {
-            logger.warn("Login failed for email: {} - {}", request.getEmail(), e.getMessage());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                .body(ApiResponse.error("Invalid credentials"));
-        } catch (IllegalStateException e) {
-            logger.warn("Login failed for email: {} - {}", request.getEmail(), e.getMessage());
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                .body(ApiResponse.error(e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Unexpected error during login for email: {}", request.getEmail(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(ApiResponse.error("Login failed. Please try again."));
-        }
+                Throwable e = unwrap(failure);
+                if (e instanceof InvalidCredentialsException) {
+                    failedLoginTracker.recordFailure(request.getEmail(), clientIp);
+                }
+                if (e instanceof DomainException domainFailure) {
+                    throw domainFailure;
+                }
+                logger.error("Unexpected error during login for email: {}", request.getEmail(), e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Login failed. Please try again."));
+            });
     }
 
     /**
@@ -111,20 +183,19 @@ public class AuthController {
                     .body(ApiResponse.error("Refresh token not found"));
             }
 
-            AuthResponse authResponse = authService.refreshToken(refreshToken);
+            // Tabs refreshing the same token together share one refresh
+            AuthResponse authResponse = refreshCoalescer.refresh(refreshToken);
 
-            // Update refresh token cookie
-            setRefreshTokenCookie(response, refreshToken);
+            // Update refresh token cookie (a new token when rotation is enabled)
+            setRefreshTokenCookie(response, authResponse.getRefreshToken());
 
             logger.debug("Token refreshed successfully");
 
             return ResponseEntity.ok(ApiResponse.success("Token refreshed successfully", authResponse));
 
-        } catch (IllegalArgumentException e) {
-            logger.warn("Token refresh failed: {}", e.getMessage());
+        } catch (InvalidTokenException e) {
             clearRefreshTokenCookie(response);
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                .body(ApiResponse.error("Invalid refresh token"));
+            throw e;
         } catch (Exception e) {
             logger.error("Unexpected error during token refresh", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -144,6 +215,13 @@ public class AuthController {
 
             if (refreshToken != null) {
                 authService.logout(refreshToken);
+                refreshCoalescer.evict(refreshToken);
+            }
+
+            // Also reject the access token this request carried, if any
+            String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if (authorization != null && authorization.startsWith("Bearer ")) {
+                authService.revokeAccessToken(authorization.substring(7));
             }
 
             // Clear refresh token cookie
@@ -160,6 +238,48 @@ public class AuthController {
         }
     }
 
+    /**
+     * List the current user's live sessions
+     * GET /api/v1/auth/sessions
+     */
+    @GetMapping("/sessions")
+    public ResponseEntity<ApiResponse<List<SessionResponse>>> listSessions(HttpServletRequest request) {
+        try {
+            String userId = getCurrentUserId();
+            List<SessionResponse> sessions = authService.listSessions(userId, getRefreshTokenFromCookie(request));
+            return ResponseEntity.ok(ApiResponse.success(sessions));
+        } catch (Exception e) {
+            logger.error("Error listing sessions", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to list sessions"));
+        }
+    }
+
+    /**
+     * Fast 503 when the password hashing queue is full
+     */
+    private <T> ResponseEntity<ApiResponse<T>> overloaded(String operation) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, passwordHashingExecutor.getRetryAfter().toSeconds())))
+            .body(ApiResponse.error(operation + " is temporarily unavailable. Please retry shortly."));
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    /**
+     * Refresh token cookie with the same attributes as setRefreshTokenCookie
+     */
+    private ResponseCookie refreshTokenCookie(String refreshToken) {
+        return ResponseCookie.from(REFRESH_TOKEN_COOKIE_NAME, refreshToken)
+            .httpOnly(true)
+            .secure(true)
+            .path("/")
+            .maxAge(7 * 24 * 60 * 60) // 7 days
+            .build();
+    }
+
     /**
      * Set refresh token as HttpOnly cookie
      */
@@ -172,6 +292,17 @@ public class AuthController {
         response.addCookie(cookie);
     }
 
+    /**
+     * Get current user ID from security context
+     */
+    private String getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof String) {
+            return (String) authentication.getPrincipal();
+        }
+        throw new IllegalStateException("User not authenticated");
+    }
+
     /**
      * Get refresh token from cookie
      */
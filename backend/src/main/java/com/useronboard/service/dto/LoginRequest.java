@@ -1,5 +1,6 @@
 package com.useronboard.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 
@@ -96,6 +97,7 @@ class AuthResponse {
         this.user = user;
     }
 
+    @JsonIgnore
     public String getRefreshToken() {
         return refreshToken;
     }
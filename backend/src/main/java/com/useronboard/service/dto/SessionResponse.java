@@ -0,0 +1,43 @@
+package com.useronboard.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * One live login session (refresh token) of the current user
+ */
+public class SessionResponse {
+    private String id;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime expiresAt;
+
+    private boolean current;
+
+    // Constructors
+    public SessionResponse() {}
+
+    public SessionResponse(String id, LocalDateTime createdAt, LocalDateTime expiresAt, boolean current) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.current = current;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+
+    public boolean isCurrent() { return current; }
+    public void setCurrent(boolean current) { this.current = current; }
+}
@@ -2,6 +2,7 @@ package com.useronboard.service.entity;
 
 import jakarta.persistence.*;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
@@ -10,11 +11,13 @@ import java.util.Objects;
 /**
  * Refresh token entity for JWT token revocation support
  * Stores refresh tokens in database for security and revocation capability
+ * Tokens rotated from the same login share a family id. The id is assigned up front, so
+ * Persistable tells Spring Data a new token is new and save() inserts without a merge select.
  */
 @Entity
 @Table(name = "refresh_tokens")
 @EntityListeners(AuditingEntityListener.class)
-public class RefreshToken {
+public class RefreshToken implements Persistable<String> {
 
     @Id
     @Column(name = "id", length = 36)
@@ -36,6 +39,12 @@ public class RefreshToken {
     @Column(name = "revoked", nullable = false)
     private Boolean revoked = false;
 
+    @Column(name = "family_id", length = 36)
+    private String familyId;
+
+    @Transient
+    private boolean isNew = true;
+
     // Reference to User entity
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", insertable = false, updatable = false)
@@ -53,7 +62,13 @@ public class RefreshToken {
         this.expiresAt = expiresAt;
     }
 
+    public RefreshToken(String userId, String tokenHash, LocalDateTime expiresAt, String familyId) {
+        this(userId, tokenHash, expiresAt);
+        this.familyId = familyId;
+    }
+
     // Getters and Setters
+    @Override
     public String getId() {
         return id;
     }
@@ -102,6 +117,25 @@ public class RefreshToken {
         this.revoked = revoked;
     }
 
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
     public User getUser() {
         return user;
     }
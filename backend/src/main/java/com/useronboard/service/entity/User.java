@@ -60,6 +60,10 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Bumped by logout of all sessions; stateless refresh tokens from earlier epochs are refused
+    @Column(name = "session_epoch", nullable = false)
+    private int sessionEpoch = 0;
+
     // Using @Lob for portable JSON storage across MSSQL (NVARCHAR(MAX)) and Oracle (CLOB)
     @Lob
     @Column(name = "metadata")
@@ -159,6 +163,14 @@ public class User {
         this.updatedAt = updatedAt;
     }
 
+    public int getSessionEpoch() {
+        return sessionEpoch;
+    }
+
+    public void setSessionEpoch(int sessionEpoch) {
+        this.sessionEpoch = sessionEpoch;
+    }
+
     public String getMetadata() {
         return metadata;
     }
@@ -0,0 +1,20 @@
+package com.useronboard.service.exception;
+
+import com.useronboard.service.entity.UserStatus;
+
+/**
+ * Correct credentials for an account that is pending, rejected or suspended
+ */
+public class AccountNotActiveException extends DomainException {
+
+    private final UserStatus status;
+
+    public AccountNotActiveException(UserStatus status) {
+        super("User account is not active. Status: " + status);
+        this.status = status;
+    }
+
+    public UserStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,11 @@
+package com.useronboard.service.exception;
+
+/**
+ * Registration with a password found in the breached-password corpus
+ */
+public class BreachedPasswordException extends DomainException {
+
+    public BreachedPasswordException() {
+        super("This password has appeared in a data breach. Please choose a different password.");
+    }
+}
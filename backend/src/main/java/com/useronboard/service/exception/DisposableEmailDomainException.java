@@ -0,0 +1,11 @@
+package com.useronboard.service.exception;
+
+/**
+ * Registration with an email address at a disposable (throwaway) domain
+ */
+public class DisposableEmailDomainException extends DomainException {
+
+    public DisposableEmailDomainException() {
+        super("Disposable email addresses are not accepted. Please register with a permanent address.");
+    }
+}
@@ -0,0 +1,13 @@
+package com.useronboard.service.exception;
+
+/**
+ * Base for expected business failures: bad credentials, unknown users, invalid tokens
+ * These are control flow, not bugs, and can be triggered at will by a client, so no stack trace is
+ * captured; throwing one costs little more than allocating it. ApiExceptionHandler maps them to responses.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
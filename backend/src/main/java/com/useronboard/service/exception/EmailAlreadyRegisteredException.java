@@ -0,0 +1,11 @@
+package com.useronboard.service.exception;
+
+/**
+ * Registration with an email that already has an account
+ */
+public class EmailAlreadyRegisteredException extends DomainException {
+
+    public EmailAlreadyRegisteredException(String email) {
+        super("User with email " + email + " already exists");
+    }
+}
@@ -0,0 +1,11 @@
+package com.useronboard.service.exception;
+
+/**
+ * Unknown email or wrong password; deliberately does not say which
+ */
+public class InvalidCredentialsException extends DomainException {
+
+    public InvalidCredentialsException() {
+        super("Invalid credentials");
+    }
+}
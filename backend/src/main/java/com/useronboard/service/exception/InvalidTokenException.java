@@ -0,0 +1,11 @@
+package com.useronboard.service.exception;
+
+/**
+ * Refresh token that is forged, expired, revoked, reused or belongs to a user who may no longer sign in
+ */
+public class InvalidTokenException extends DomainException {
+
+    public InvalidTokenException() {
+        super("Invalid or expired refresh token");
+    }
+}
@@ -0,0 +1,13 @@
+package com.useronboard.service.exception;
+
+import com.useronboard.service.entity.UserStatus;
+
+/**
+ * Admin action on a user whose status does not allow it
+ */
+public class InvalidUserStateException extends DomainException {
+
+    public InvalidUserStateException(UserStatus expected, UserStatus actual) {
+        super("User is not in " + expected + " status. Current status: " + actual);
+    }
+}
@@ -0,0 +1,11 @@
+package com.useronboard.service.exception;
+
+/**
+ * No user with the given id
+ */
+public class UserNotFoundException extends DomainException {
+
+    public UserNotFoundException(String userId) {
+        super("User not found: " + userId);
+    }
+}
@@ -0,0 +1,46 @@
+package com.useronboard.service.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.useronboard.service.security.AccessTokenDenylist;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Applies user.tokens.revoked events from every node to this node's access-token denylist
+ * Consumes a per-instance anonymous queue bound to the user events exchange.
+ */
+@Component
+public class AccessTokenRevocationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessTokenRevocationListener.class);
+
+    private final ObjectMapper objectMapper;
+    private final AccessTokenDenylist accessTokenDenylist;
+
+    public AccessTokenRevocationListener(ObjectMapper objectMapper, AccessTokenDenylist accessTokenDenylist) {
+        this.objectMapper = objectMapper;
+        this.accessTokenDenylist = accessTokenDenylist;
+    }
+
+    @RabbitListener(queues = "#{accessTokenRevocationsQueue.name}")
+    public void handleAccessTokensRevokedEvent(String eventJson) {
+        try {
+            Map<String, Object> event = objectMapper.readValue(eventJson, Map.class);
+            String tokenId = (String) event.get("tokenId");
+            if (tokenId != null) {
+                long expiresAt = ((Number) event.get("expiresAt")).longValue();
+                accessTokenDenylist.revokeToken(tokenId, Instant.ofEpochSecond(expiresAt));
+            } else {
+                long notBefore = ((Number) event.get("notBefore")).longValue();
+                accessTokenDenylist.revokeUser((String) event.get("userId"), Instant.ofEpochSecond(notBefore));
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to apply access token revocation: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.useronboard.service.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.useronboard.service.security.VerifiedTokenCache;
+import com.useronboard.service.service.RefreshTokenCache;
+import com.useronboard.service.service.SessionEpochCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Applies refresh-token evictions broadcast by other nodes to this node's caches
+ */
+@Component
+public class RefreshTokenEvictionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenEvictionListener.class);
+
+    private final ObjectMapper objectMapper;
+    private final RefreshTokenCache refreshTokenCache;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final SessionEpochCache sessionEpochCache;
+    private final RefreshTokenEvictionPublisher publisher;
+
+    public RefreshTokenEvictionListener(ObjectMapper objectMapper, RefreshTokenCache refreshTokenCache,
+                                        VerifiedTokenCache verifiedTokenCache, SessionEpochCache sessionEpochCache,
+                                        RefreshTokenEvictionPublisher publisher) {
+        this.objectMapper = objectMapper;
+        this.refreshTokenCache = refreshTokenCache;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.sessionEpochCache = sessionEpochCache;
+        this.publisher = publisher;
+    }
+
+    @RabbitListener(queues = "#{refreshTokenEvictionsQueue.name}")
+    public void handleEviction(String eventJson) {
+        try {
+            Map<String, Object> event = objectMapper.readValue(eventJson, Map.class);
+            if (publisher.getNodeId().equals(event.get("origin"))) {
+                return;
+            }
+
+            String key = (String) event.get("key");
+            if (RefreshTokenEvictionPublisher.TYPE_USER.equals(event.get("type"))) {
+                refreshTokenCache.evictUserLocally(key);
+                // Sessions revoked elsewhere: drop this node's verified access tokens too
+                verifiedTokenCache.invalidateUser(key);
+                sessionEpochCache.evictUserLocally(key);
+            } else {
+                refreshTokenCache.evictLocally(key);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to apply refresh token eviction: {}", e.getMessage());
+        }
+    }
+}
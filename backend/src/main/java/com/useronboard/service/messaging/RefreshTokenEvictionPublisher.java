@@ -0,0 +1,66 @@
+package com.useronboard.service.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.useronboard.service.config.RabbitMQConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Broadcasts refresh-token cache evictions to every node over the evictions fanout
+ * Each message carries this node's id so the sender can ignore its own echo.
+ */
+@Component
+public class RefreshTokenEvictionPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenEvictionPublisher.class);
+
+    static final String TYPE_TOKEN = "token";
+    static final String TYPE_USER = "user";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public RefreshTokenEvictionPublisher(RabbitTemplate rabbitTemplate, ObjectMapper objectMapper) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Evict one token hash on other nodes
+     */
+    public void publishTokenEviction(String tokenHash) {
+        publish(TYPE_TOKEN, tokenHash);
+    }
+
+    /**
+     * Evict every token of a user on other nodes
+     */
+    public void publishUserEviction(String userId) {
+        publish(TYPE_USER, userId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private void publish(String type, String key) {
+        try {
+            Map<String, Object> event = new HashMap<>();
+            event.put("type", type);
+            event.put("key", key);
+            event.put("origin", nodeId);
+
+            rabbitTemplate.convertAndSend(RabbitMQConfig.REFRESH_TOKEN_EVICTIONS_EXCHANGE, "", objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            // Other nodes fall back to the cache TTL
+            logger.error("Failed to broadcast refresh token eviction ({}): {}", type, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.useronboard.service.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.useronboard.service.service.RegisteredEmailFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Feeds user.registered events from every node into this node's registered-email filter
+ * Consumes a per-instance anonymous queue, so all nodes see all registrations.
+ */
+@Component
+public class RegisteredEmailListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegisteredEmailListener.class);
+
+    private final ObjectMapper objectMapper;
+    private final RegisteredEmailFilter registeredEmailFilter;
+
+    public RegisteredEmailListener(ObjectMapper objectMapper, RegisteredEmailFilter registeredEmailFilter) {
+        this.objectMapper = objectMapper;
+        this.registeredEmailFilter = registeredEmailFilter;
+    }
+
+    @RabbitListener(queues = "#{registeredEmailsBroadcastQueue.name}")
+    public void handleUserRegisteredEvent(String eventJson) {
+        try {
+            Map<String, Object> event = objectMapper.readValue(eventJson, Map.class);
+            registeredEmailFilter.add((String) event.get("email"));
+        } catch (Exception e) {
+            // The periodic rebuild picks the email up anyway
+            logger.warn("Failed to apply user registered event to email filter: {}", e.getMessage());
+        }
+    }
+}
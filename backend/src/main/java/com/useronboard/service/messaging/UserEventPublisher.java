@@ -8,6 +8,7 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -94,6 +95,46 @@ public class UserEventPublisher {
         }
     }
 
+    /**
+     * Publish revocation of one access token (by jti) until it expires
+     */
+    public void publishAccessTokenRevokedEvent(String userId, String tokenId, Instant expiresAt) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("tokenId", tokenId);
+        event.put("expiresAt", expiresAt.getEpochSecond());
+        publishAccessTokensRevoked(userId, event);
+    }
+
+    /**
+     * Publish revocation of every access token of the user issued before notBefore
+     */
+    public void publishAllAccessTokensRevokedEvent(String userId, Instant notBefore) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("notBefore", notBefore.getEpochSecond());
+        publishAccessTokensRevoked(userId, event);
+    }
+
+    /**
+     * Every node's denylist applies these, the publisher's included (re-applying is harmless)
+     */
+    private void publishAccessTokensRevoked(String userId, Map<String, Object> event) {
+        try {
+            event.put("eventType", "user.tokens.revoked");
+            event.put("userId", userId);
+            event.put("timestamp", System.currentTimeMillis());
+
+            rabbitTemplate.convertAndSend(
+                exchangeName,
+                "user.tokens.revoked",
+                objectMapper.writeValueAsString(event)
+            );
+
+            logger.debug("Published access tokens revoked event for user: {}", userId);
+        } catch (Exception e) {
+            logger.error("Failed to publish access tokens revoked event for user: {}", userId, e);
+        }
+    }
+
     /**
      * Create base event structure
      */
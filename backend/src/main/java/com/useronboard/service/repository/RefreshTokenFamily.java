@@ -0,0 +1,11 @@
+package com.useronboard.service.repository;
+
+/**
+ * Owner and rotation family of a stored refresh token, read by opaque-token rotation
+ */
+public interface RefreshTokenFamily {
+
+    String getUserId();
+
+    String getFamilyId();
+}
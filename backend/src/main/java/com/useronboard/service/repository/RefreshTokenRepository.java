@@ -25,6 +25,21 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Stri
     @Query("SELECT rt FROM RefreshToken rt WHERE rt.tokenHash = :tokenHash AND rt.revoked = false AND rt.expiresAt > :now")
     Optional<RefreshToken> findValidTokenByHash(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
 
+    /**
+     * Find a valid token by hash together with its owner's email, roles and status
+     * One indexed lookup; the users row is joined by primary key and its LOB is not read
+     */
+    @Query("SELECT rt.userId AS userId, u.email AS email, u.roles AS roles, u.status AS status, rt.expiresAt AS expiresAt " +
+           "FROM RefreshToken rt JOIN rt.user u " +
+           "WHERE rt.tokenHash = :tokenHash AND rt.revoked = false AND rt.expiresAt > :now")
+    Optional<RefreshTokenWithUser> findValidTokenWithUser(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
+
+    /**
+     * Owner and family of a token by hash, whether or not it is still valid
+     */
+    @Query("SELECT rt.userId AS userId, rt.familyId AS familyId FROM RefreshToken rt WHERE rt.tokenHash = :tokenHash")
+    Optional<RefreshTokenFamily> findFamilyByHash(@Param("tokenHash") String tokenHash);
+
     /**
      * Find all tokens for a user
      */
@@ -44,6 +59,20 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Stri
     @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.userId = :userId AND rt.revoked = false")
     int revokeAllUserTokens(@Param("userId") String userId);
 
+    /**
+     * Revoke a user's live tokens beyond the newest {@code keep} (per-user session cap)
+     * One set-based statement: a token is revoked when at least {@code keep} live tokens of the same
+     * user are newer than it. The correlated count stays small because the cap bounds live tokens.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true " +
+           "WHERE rt.userId = :userId AND rt.revoked = false AND rt.expiresAt > :now " +
+           "AND (SELECT COUNT(newer) FROM RefreshToken newer " +
+           "     WHERE newer.userId = :userId AND newer.revoked = false AND newer.expiresAt > :now " +
+           "     AND (newer.createdAt > rt.createdAt OR (newer.createdAt = rt.createdAt AND newer.id > rt.id))) >= :keep")
+    int revokeOldestBeyond(@Param("userId") String userId, @Param("keep") long keep, @Param("now") LocalDateTime now);
+
     /**
      * Revoke specific token
      */
@@ -53,20 +82,23 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Stri
     int revokeTokenByHash(@Param("tokenHash") String tokenHash);
 
     /**
-     * Clean up expired tokens (for scheduled cleanup job)
+     * Consume a token for rotation: revokes it only if it is still valid
+     * Returns 1 when this caller won the token, 0 when it was already used, revoked, expired or unknown
      */
     @Modifying
     @Transactional
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now")
-    int deleteExpiredTokens(@Param("now") LocalDateTime now);
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true " +
+           "WHERE rt.tokenHash = :tokenHash AND rt.userId = :userId AND rt.revoked = false AND rt.expiresAt > :now")
+    int consumeValidToken(@Param("tokenHash") String tokenHash, @Param("userId") String userId,
+                          @Param("now") LocalDateTime now);
 
     /**
-     * Clean up revoked tokens older than specified date
+     * Revoke every token rotated from the same login (reuse detected)
      */
     @Modifying
     @Transactional
-    @Query("DELETE FROM RefreshToken rt WHERE rt.revoked = true AND rt.createdAt < :before")
-    int deleteRevokedTokensOlderThan(@Param("before") LocalDateTime before);
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.familyId = :familyId AND rt.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
 
     /**
      * Count valid tokens for a user (for rate limiting)
@@ -0,0 +1,11 @@
+package com.useronboard.service.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * A valid refresh token joined to its owner, read in one statement by the refresh path
+ */
+public interface RefreshTokenWithUser extends UserAuthView {
+
+    LocalDateTime getExpiresAt();
+}
@@ -0,0 +1,22 @@
+package com.useronboard.service.repository;
+
+import com.useronboard.service.entity.UserStatus;
+
+/**
+ * The user columns needed to mint an access token
+ * A closed projection: selects only these columns, never the metadata LOB.
+ */
+public interface UserAuthView {
+
+    String getUserId();
+
+    String getEmail();
+
+    String getRoles();
+
+    UserStatus getStatus();
+
+    default boolean isActive() {
+        return UserStatus.ACTIVE.equals(getStatus());
+    }
+}
@@ -2,11 +2,14 @@ package com.useronboard.service.repository;
 
 import com.useronboard.service.entity.User;
 import com.useronboard.service.entity.UserStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * User repository with database-portable queries
@@ -32,6 +36,45 @@ public interface UserRepository extends JpaRepository<User, String> {
      */
     boolean existsByEmailIgnoreCase(String email);
 
+    /**
+     * Stream every stored email without loading entities (used to build the registered-email filter)
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.email FROM User u")
+    Stream<String> streamAllEmails();
+
+    /**
+     * Email, roles and status of a user by id, without loading the entity or its metadata LOB
+     */
+    @Query("SELECT u.id AS userId, u.email AS email, u.roles AS roles, u.status AS status FROM User u WHERE u.id = :userId")
+    Optional<UserAuthView> findAuthViewById(@Param("userId") String userId);
+
+    /**
+     * Token-minting fields and session epoch of a user by id (stateless refresh)
+     */
+    @Query("SELECT u.id AS userId, u.email AS email, u.roles AS roles, u.status AS status, " +
+           "u.sessionEpoch AS sessionEpoch FROM User u WHERE u.id = :userId")
+    Optional<UserSessionView> findSessionViewById(@Param("userId") String userId);
+
+    /**
+     * Invalidate every stateless refresh token of a user (logout of all sessions)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.sessionEpoch = u.sessionEpoch + 1 WHERE u.id = :userId")
+    int incrementSessionEpoch(@Param("userId") String userId);
+
+    /**
+     * Replace a password hash, unless it changed since it was read (password hash upgrade on login)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.passwordHash = :upgradedHash WHERE u.id = :userId AND u.passwordHash = :matchedHash")
+    int updatePasswordHash(@Param("userId") String userId,
+                           @Param("matchedHash") String matchedHash,
+                           @Param("upgradedHash") String upgradedHash);
+
     /**
      * Find users by status with pagination
      */
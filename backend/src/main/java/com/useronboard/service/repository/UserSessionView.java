@@ -0,0 +1,9 @@
+package com.useronboard.service.repository;
+
+/**
+ * A user's token-minting fields plus the session epoch stateless refresh tokens are checked against
+ */
+public interface UserSessionView extends UserAuthView {
+
+    int getSessionEpoch();
+}
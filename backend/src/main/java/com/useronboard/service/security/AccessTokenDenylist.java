@@ -0,0 +1,390 @@
+package com.useronboard.service.security;
+
+import com.useronboard.service.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Revoked access tokens, checked by JwtRequestFilter after signature verification
+ * Two kinds of entry share one open-addressing table: a revoked jti, and a per-user "not before"
+ * second that rejects every token of that user issued earlier (logout of all sessions). Each entry
+ * records when the last token it can match expires, after which its slot is free for reuse, so the
+ * table ages out on its own. The table is a memory-mapped file, so revocations survive a restart;
+ * a lookup is one hash and a short lock-free probe.
+ */
+@Component
+public class AccessTokenDenylist {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessTokenDenylist.class);
+
+    private static final long MAGIC = 0x4a57_5444_454e_5931L;
+    private static final int HEADER_BYTES = 16;
+    private static final int SLOT_BYTES = 24;
+    private static final long EMPTY = 0L;
+    private static final long WRITING = -1L;
+    private static final long ABSENT = Long.MIN_VALUE;
+    private static final double MAX_OCCUPANCY = 0.5;
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final boolean enabled;
+    private final Path file;
+    private final int minimumCapacity;
+    private final Duration accessTokenExpiry;
+    private final Clock clock;
+    private final Counter tokenRejections;
+    private final Counter userRejections;
+
+    private final Object writeLock = new Object();
+    private volatile Table table;
+
+    public AccessTokenDenylist(@Value("${security.token-denylist.enabled:true}") boolean enabled,
+                               @Value("${security.token-denylist.file:}") String file,
+                               @Value("${security.token-denylist.capacity:65536}") int capacity,
+                               @Value("${security.jwt.access-token-expiry:15m}") Duration accessTokenExpiry,
+                               Clock clock,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.file = file == null || file.isBlank() ? null : Path.of(file);
+        this.minimumCapacity = ceilingPowerOfTwo(Math.max(64, capacity));
+        this.accessTokenExpiry = accessTokenExpiry;
+        this.clock = clock;
+        this.table = enabled ? open() : Table.inMemory(64);
+
+        this.tokenRejections = Counter.builder("auth.token.denylist.rejected")
+                .description("Verified access tokens rejected as revoked")
+                .tag("kind", "token")
+                .register(meterRegistry);
+        this.userRejections = Counter.builder("auth.token.denylist.rejected")
+                .description("Verified access tokens rejected as revoked")
+                .tag("kind", "user")
+                .register(meterRegistry);
+        Gauge.builder("auth.token.denylist.capacity", this, d -> d.table.capacity)
+                .description("Slots in the denylist table")
+                .register(meterRegistry);
+        Gauge.builder("auth.token.denylist.occupied", this, d -> d.table.occupied)
+                .description("Slots ever written since the last compaction, live or aged out")
+                .register(meterRegistry);
+    }
+
+    /**
+     * true when the token's jti was revoked or its user logged out all sessions after it was issued
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        if (!enabled) {
+            return false;
+        }
+        Table current = table;
+        long now = clock.instant().getEpochSecond();
+
+        if (token.getTokenId() != null && current.find(key('j', token.getTokenId()), now) != ABSENT) {
+            tokenRejections.increment();
+            return true;
+        }
+        long notBefore = current.find(key('u', token.getSubject()), now);
+        if (notBefore != ABSENT
+                && (token.getIssuedAt() == null || token.getIssuedAt().getEpochSecond() < notBefore)) {
+            userRejections.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * true when this jti was revoked; also used for stateless refresh tokens logged out one at a time
+     */
+    public boolean isTokenRevoked(String tokenId) {
+        return enabled && tokenId != null
+                && table.find(key('j', tokenId), clock.instant().getEpochSecond()) != ABSENT;
+    }
+
+    /**
+     * Reject one access token until it expires
+     */
+    public void revokeToken(String tokenId, Instant expiresAt) {
+        if (enabled && tokenId != null && expiresAt != null) {
+            put(key('j', tokenId), 0L, expiresAt.getEpochSecond());
+        }
+    }
+
+    /**
+     * Reject every access token of the user issued before notBefore
+     * Compared at whole seconds, the precision of the issued-at claim
+     */
+    public void revokeUser(String userId, Instant notBefore) {
+        if (enabled && userId != null) {
+            put(key('u', userId), notBefore.getEpochSecond(), notBefore.plus(accessTokenExpiry).getEpochSecond());
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        if (table.buffer instanceof MappedByteBuffer mapped && table.fileBacked) {
+            mapped.force();
+        }
+    }
+
+    private void put(long key, long value, long expiresAt) {
+        long now = clock.instant().getEpochSecond();
+        if (expiresAt <= now) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (table.put(key, value, expiresAt, now) && table.occupied <= table.capacity * MAX_OCCUPANCY) {
+                return;
+            }
+            // Aged-out slots still lengthen probes until the table is rebuilt from its live entries
+            table = compact(table, now);
+            if (!table.put(key, value, expiresAt, now)) {
+                logger.error("Access token denylist is full ({} slots); revocation not recorded", table.capacity);
+            }
+        }
+    }
+
+    private Table compact(Table current, long now) {
+        int live = current.countLive(now);
+        int capacity = Math.max(minimumCapacity, ceilingPowerOfTwo(live * 4));
+        Table next = create(capacity);
+        current.copyLiveTo(next, now);
+        if (next.fileBacked) {
+            try {
+                Files.move(tmpFile(), file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                logger.warn("Could not replace denylist file {}: {}", file, e.getMessage());
+            }
+        }
+        logger.info("Access token denylist compacted: {} live entries, {} slots", live, capacity);
+        return next;
+    }
+
+    /**
+     * Map the existing file if it holds a table, otherwise start an empty one
+     */
+    private Table open() {
+        if (file == null) {
+            logger.info("Access token denylist kept in memory only (no file configured)");
+            return Table.inMemory(minimumCapacity);
+        }
+        try {
+            if (Files.size(file) >= HEADER_BYTES) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                    channel.read(header, 0);
+                    long capacity = header.getLong(8);
+                    if (header.getLong(0) == MAGIC && Long.bitCount(capacity) == 1
+                            && channel.size() == HEADER_BYTES + capacity * SLOT_BYTES) {
+                        Table loaded = new Table(channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()), (int) capacity, true);
+                        logger.info("Access token denylist loaded from {}: {} live entries",
+                                file, loaded.countLive(clock.instant().getEpochSecond()));
+                        return loaded;
+                    }
+                }
+                logger.warn("Ignoring unrecognized access token denylist file {}", file);
+            }
+        } catch (IOException e) {
+            // Missing file: create below
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Table created = mapFile(file, minimumCapacity);
+            logger.info("Access token denylist created at {} ({} slots)", file, minimumCapacity);
+            return created;
+        } catch (IOException e) {
+            logger.warn("Cannot map access token denylist file {}, keeping it in memory: {}", file, e.getMessage());
+            return Table.inMemory(minimumCapacity);
+        }
+    }
+
+    private Table create(int capacity) {
+        if (table.fileBacked) {
+            try {
+                return mapFile(tmpFile(), capacity);
+            } catch (IOException e) {
+                logger.warn("Cannot map new denylist file, continuing in memory: {}", e.getMessage());
+            }
+        }
+        return Table.inMemory(capacity);
+    }
+
+    private Path tmpFile() {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    private static Table mapFile(Path path, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * SLOT_BYTES);
+            return Table.initialize(buffer, capacity, true);
+        }
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static long key(char kind, String id) {
+        long hash = BloomFilter.murmur3((kind + id).getBytes(StandardCharsets.UTF_8))[0];
+        return hash == EMPTY || hash == WRITING ? 1L : hash;
+    }
+
+    /**
+     * Linear-probing table of (key, value, expiresAt) slots over a byte buffer
+     * Writers hold the denylist lock; readers take no lock. A slot being rewritten is marked
+     * WRITING first and re-published with a release store, and readers re-check the key after
+     * reading the value, so they never pair one entry's key with another's value.
+     */
+    static final class Table {
+
+        final ByteBuffer buffer;
+        final int capacity;
+        final boolean fileBacked;
+        private final int mask;
+        volatile int occupied;
+
+        Table(ByteBuffer buffer, int capacity, boolean fileBacked) {
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.fileBacked = fileBacked;
+            this.mask = capacity - 1;
+            int used = 0;
+            for (int slot = 0; slot < capacity; slot++) {
+                if ((long) LONGS.get(buffer, offset(slot)) != EMPTY) {
+                    used++;
+                }
+            }
+            this.occupied = used;
+        }
+
+        static Table inMemory(int capacity) {
+            return initialize(ByteBuffer.allocateDirect(HEADER_BYTES + capacity * SLOT_BYTES), capacity, false);
+        }
+
+        static Table initialize(ByteBuffer buffer, int capacity, boolean fileBacked) {
+            LONGS.set(buffer, 0, MAGIC);
+            LONGS.set(buffer, 8, (long) capacity);
+            return new Table(buffer, capacity, fileBacked);
+        }
+
+        long find(long key, long now) {
+            int slot = (int) key & mask;
+            for (int probe = 0; probe < capacity; probe++) {
+                int offset = offset(slot);
+                long current = (long) LONGS.getAcquire(buffer, offset);
+                if (current == EMPTY) {
+                    return ABSENT;
+                }
+                if (current == key) {
+                    long value = (long) LONGS.getAcquire(buffer, offset + 8);
+                    long expiresAt = (long) LONGS.getAcquire(buffer, offset + 16);
+                    // Only aged-out slots are rewritten, so a changed key means the entry was dead anyway
+                    if ((long) LONGS.getAcquire(buffer, offset) != key || expiresAt <= now) {
+                        return ABSENT;
+                    }
+                    return value;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return ABSENT;
+        }
+
+        /**
+         * Insert or widen an entry; false when every slot holds a live entry
+         */
+        boolean put(long key, long value, long expiresAt, long now) {
+            int slot = (int) key & mask;
+            int reusable = -1;
+            for (int probe = 0; probe < capacity; probe++) {
+                int offset = offset(slot);
+                long current = (long) LONGS.get(buffer, offset);
+                if (current == key) {
+                    // Expiry before value: a reader may see the old value, never a live entry cut short
+                    if (expiresAt > (long) LONGS.get(buffer, offset + 16)) {
+                        LONGS.setRelease(buffer, offset + 16, expiresAt);
+                    }
+                    if (value > (long) LONGS.get(buffer, offset + 8)) {
+                        LONGS.setRelease(buffer, offset + 8, value);
+                    }
+                    return true;
+                }
+                if (current == EMPTY) {
+                    if (reusable < 0) {
+                        reusable = slot;
+                    }
+                    break;
+                }
+                if (reusable < 0 && current != WRITING && (long) LONGS.get(buffer, offset + 16) <= now) {
+                    reusable = slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (reusable < 0) {
+                return false;
+            }
+
+            int offset = offset(reusable);
+            boolean fresh = (long) LONGS.get(buffer, offset) == EMPTY;
+            LONGS.setVolatile(buffer, offset, WRITING);
+            LONGS.setVolatile(buffer, offset + 8, value);
+            LONGS.setVolatile(buffer, offset + 16, expiresAt);
+            LONGS.setRelease(buffer, offset, key);
+            if (fresh) {
+                occupied = occupied + 1;
+            }
+            return true;
+        }
+
+        int countLive(long now) {
+            int live = 0;
+            for (int slot = 0; slot < capacity; slot++) {
+                if (isLive(slot, now)) {
+                    live++;
+                }
+            }
+            return live;
+        }
+
+        void copyLiveTo(Table target, long now) {
+            for (int slot = 0; slot < capacity; slot++) {
+                if (isLive(slot, now)) {
+                    int offset = offset(slot);
+                    target.put((long) LONGS.get(buffer, offset), (long) LONGS.get(buffer, offset + 8),
+                            (long) LONGS.get(buffer, offset + 16), now);
+                }
+            }
+        }
+
+        private boolean isLive(int slot, long now) {
+            int offset = offset(slot);
+            long key = (long) LONGS.get(buffer, offset);
+            return key != EMPTY && key != WRITING && (long) LONGS.get(buffer, offset + 16) > now;
+        }
+
+        private static int offset(int slot) {
+            return HEADER_BYTES + slot * SLOT_BYTES;
+        }
+    }
+}
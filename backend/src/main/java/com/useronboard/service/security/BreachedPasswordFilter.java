@@ -0,0 +1,124 @@
+package com.useronboard.service.security;
+
+import com.useronboard.service.util.MappedBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Screens new passwords against a breached-password corpus
+ * The corpus is built offline by BreachedPasswordFilterBuilder into a Bloom filter of SHA-1 digests
+ * (the Pwned Passwords format) and memory-mapped here. A check hashes the password into a per-thread
+ * buffer and probes the mapping, so it allocates nothing and takes well under a microsecond once the
+ * pages are resident. A false positive only asks the user for a different password.
+ */
+@Component
+public class BreachedPasswordFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BreachedPasswordFilter.class);
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final MappedBloomFilter filter;
+    private final Counter rejections;
+
+    public BreachedPasswordFilter(@Value("${security.breached-passwords.file:}") String file,
+                                  MeterRegistry meterRegistry) {
+        this.filter = file.isBlank() ? null : open(Path.of(file));
+        this.rejections = Counter.builder("auth.password.breached")
+                .description("Registrations refused because the password is in the breached-password corpus")
+                .register(meterRegistry);
+    }
+
+    /**
+     * true when the password is (probably) in the corpus; always false without a corpus
+     */
+    public boolean isBreached(String password) {
+        if (filter == null) {
+            return false;
+        }
+        Scratch scratch = SCRATCH.get();
+        scratch.digestUtf8(password);
+        boolean breached = filter.mightContain(scratch.digest, 0);
+        if (breached) {
+            rejections.increment();
+        }
+        return breached;
+    }
+
+    public boolean isEnabled() {
+        return filter != null;
+    }
+
+    private static MappedBloomFilter open(Path file) {
+        try {
+            MappedBloomFilter filter = MappedBloomFilter.open(file);
+            logger.info("Breached-password filter mapped from {}: {} passwords, {} MiB, expected false-positive rate {}",
+                    file, filter.elements(), filter.bitSize() / 8 / (1024 * 1024), filter.expectedFalsePositiveRate());
+            return filter;
+        } catch (IOException e) {
+            // A configured screen that silently does nothing would be worse than not starting
+            throw new UncheckedIOException("Cannot map breached-password filter " + file, e);
+        }
+    }
+
+    /**
+     * Per-thread SHA-1 state and output buffer; the password is fed as UTF-8 without a byte[] copy
+     */
+    private static final class Scratch {
+
+        private final MessageDigest sha1;
+        private final byte[] digest = new byte[20];
+
+        Scratch() {
+            try {
+                sha1 = MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-1 not available", e);
+            }
+        }
+
+        void digestUtf8(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                int c = value.charAt(i);
+                if (Character.isHighSurrogate((char) c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    c = Character.toCodePoint((char) c, value.charAt(++i));
+                } else if (Character.isSurrogate((char) c)) {
+                    // Unpaired surrogate: String.getBytes(UTF_8) writes '?'
+                    c = '?';
+                }
+                if (c < 0x80) {
+                    sha1.update((byte) c);
+                } else if (c < 0x800) {
+                    sha1.update((byte) (0xc0 | c >> 6));
+                    sha1.update((byte) (0x80 | c & 0x3f));
+                } else if (c < 0x10000) {
+                    sha1.update((byte) (0xe0 | c >> 12));
+                    sha1.update((byte) (0x80 | c >> 6 & 0x3f));
+                    sha1.update((byte) (0x80 | c & 0x3f));
+                } else {
+                    sha1.update((byte) (0xf0 | c >> 18));
+                    sha1.update((byte) (0x80 | c >> 12 & 0x3f));
+                    sha1.update((byte) (0x80 | c >> 6 & 0x3f));
+                    sha1.update((byte) (0x80 | c & 0x3f));
+                }
+            }
+            try {
+                sha1.digest(digest, 0, digest.length);
+            } catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.useronboard.service.security;
+
+import com.useronboard.service.util.HeavyHitters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Which emails and client IPs are collecting failed logins right now
+ * Each failed login is counted per email and per IP in a Count-Min sketch with a top-k heap
+ * (HeavyHitters), so memory stays fixed however many distinct keys an attack sprays. Every
+ * decay interval all counts are scaled by the decay factor, giving an exponentially weighted
+ * window. Metrics carry ranks and counts only; the emails and IPs themselves are served to
+ * admins, not exported.
+ */
+@Component
+public class FailedLoginTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(FailedLoginTracker.class);
+
+    private final boolean enabled;
+    private final double decayFactor;
+    private final HeavyHitters byEmail;
+    private final HeavyHitters byIp;
+    private final Counter failures;
+
+    public FailedLoginTracker(@Value("${security.failed-logins.enabled:true}") boolean enabled,
+                              @Value("${security.failed-logins.top-k:10}") int topK,
+                              @Value("${security.failed-logins.sketch-width:2048}") int width,
+                              @Value("${security.failed-logins.sketch-depth:4}") int depth,
+                              @Value("${security.failed-logins.decay-factor:0.5}") double decayFactor,
+                              MeterRegistry meterRegistry) {
+        if (decayFactor < 0 || decayFactor >= 1) {
+            throw new IllegalArgumentException("security.failed-logins.decay-factor must be in [0, 1): " + decayFactor);
+        }
+        this.enabled = enabled;
+        this.decayFactor = decayFactor;
+        this.byEmail = new HeavyHitters(topK, width, depth);
+        this.byIp = new HeavyHitters(topK, width, depth);
+
+        this.failures = Counter.builder("auth.login.failures")
+                .description("Logins refused for bad credentials")
+                .register(meterRegistry);
+        for (int rank = 1; rank <= topK; rank++) {
+            registerRankGauge(meterRegistry, "email", byEmail, rank);
+            registerRankGauge(meterRegistry, "ip", byIp, rank);
+        }
+
+        if (enabled) {
+            logger.info("Failed-login tracking enabled (top {}, {}x{} sketch, decay factor {})", topK, depth, width, decayFactor);
+        }
+    }
+
+    /**
+     * Count one failed login; either key may be null
+     */
+    public void recordFailure(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        failures.increment();
+        if (email != null) {
+            byEmail.add(normalize(email));
+        }
+        if (clientIp != null) {
+            byIp.add(clientIp);
+        }
+    }
+
+    /**
+     * Recent (decayed) failed logins for this email; may overcount, never undercounts
+     */
+    public int emailFailures(String email) {
+        return email != null ? byEmail.estimate(normalize(email)) : 0;
+    }
+
+    /**
+     * Recent (decayed) failed logins from this client IP; may overcount, never undercounts
+     */
+    public int ipFailures(String clientIp) {
+        return clientIp != null ? byIp.estimate(clientIp) : 0;
+    }
+
+    public List<HeavyHitters.Entry> topEmails() {
+        return byEmail.top();
+    }
+
+    public List<HeavyHitters.Entry> topIps() {
+        return byIp.top();
+    }
+
+    /**
+     * Age all counts by the decay factor
+     */
+    @Scheduled(fixedRateString = "${security.failed-logins.decay-interval:1m}",
+               initialDelayString = "${security.failed-logins.decay-interval:1m}")
+    public void decay() {
+        if (!enabled) {
+            return;
+        }
+        byEmail.decay(decayFactor);
+        byIp.decay(decayFactor);
+    }
+
+    private static void registerRankGauge(MeterRegistry meterRegistry, String key, HeavyHitters hitters, int rank) {
+        Gauge.builder("auth.login.failures.top", hitters, h -> {
+                    List<HeavyHitters.Entry> top = h.top();
+                    return top.size() >= rank ? top.get(rank - 1).count() : 0;
+                })
+                .description("Decayed failed-login count of the rank-th most failing key")
+                .tag("key", key)
+                .tag("rank", String.valueOf(rank))
+                .register(meterRegistry);
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
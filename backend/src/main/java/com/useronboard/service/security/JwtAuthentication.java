@@ -0,0 +1,90 @@
+package com.useronboard.service.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Authentication established from a verified access token
+ * Holds the userId as principal (controllers rely on getPrincipal() being a String) and shares
+ * the interned authority list instead of copying it per request. Always authenticated, no
+ * credentials and no request details.
+ */
+public final class JwtAuthentication implements Authentication {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String userId;
+    private final String email;
+    private final List<GrantedAuthority> authorities;
+
+    public JwtAuthentication(String userId, String email, List<GrantedAuthority> authorities) {
+        this.userId = userId;
+        this.email = email;
+        this.authorities = authorities;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return userId;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (authenticated) {
+            return;
+        }
+        throw new IllegalArgumentException("JwtAuthentication is immutable; clear the security context instead");
+    }
+
+    @Override
+    public String getName() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof JwtAuthentication that)) return false;
+        return Objects.equals(userId, that.userId)
+                && Objects.equals(email, that.email)
+                && Objects.equals(authorities, that.authorities);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, email, authorities);
+    }
+
+    @Override
+    public String toString() {
+        return "JwtAuthentication{userId='" + userId + "', authorities=" + authorities + "}";
+    }
+}
@@ -0,0 +1,269 @@
+package com.useronboard.service.security;
+
+import com.useronboard.service.util.FileChangeWatcher;
+import io.jsonwebtoken.Jwts;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the JWT key ring
+ * Loads keys from disk, derives a kid for each public key, and hot-reloads when the key
+ * directories change. Request threads only ever read the current snapshot; reloads run on
+ * the watcher thread and publish a new ring with a single atomic swap.
+ */
+@Component
+public class JwtKeyManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyManager.class);
+
+    private final String privateKeyPath;
+    private final String publicKeyPath;
+    private final String algorithm;
+    private final String verificationKeysDir;
+    private final Duration keyOverlap;
+    private final boolean watchEnabled;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final Clock clock;
+
+    private final AtomicReference<JwtKeyRing> keyRing = new AtomicReference<>();
+    private FileChangeWatcher watcher;
+
+    public JwtKeyManager(@Value("${security.jwt.private-key-path}") String privateKeyPath,
+                         @Value("${security.jwt.public-key-path}") String publicKeyPath,
+                         @Value("${security.jwt.algorithm:RS256}") String algorithm,
+                         @Value("${security.jwt.verification-keys-dir:}") String verificationKeysDir,
+                         @Value("${security.jwt.key-overlap:30m}") Duration keyOverlap,
+                         @Value("${security.jwt.key-watch.enabled:true}") boolean watchEnabled,
+                         VerifiedTokenCache verifiedTokenCache,
+                         Clock clock) {
+        this.privateKeyPath = privateKeyPath;
+        this.publicKeyPath = publicKeyPath;
+        this.algorithm = algorithm;
+        this.verificationKeysDir = verificationKeysDir;
+        this.keyOverlap = keyOverlap;
+        this.watchEnabled = watchEnabled;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.clock = clock;
+    }
+
+    /**
+     * Current key ring; loads keys on first use if startup has not done so yet
+     */
+    public JwtKeyRing getKeyRing() {
+        JwtKeyRing ring = keyRing.get();
+        if (ring == null) {
+            initialize();
+            ring = keyRing.get();
+        }
+        return ring;
+    }
+
+    /**
+     * Load keys and start watching the key directories
+     */
+    public synchronized void initialize() {
+        if (keyRing.get() == null) {
+            try {
+                reload();
+            } catch (Exception e) {
+                logger.error("Failed to load JWT keys from {} and {}", privateKeyPath, publicKeyPath, e);
+                throw new IllegalStateException("Failed to initialize JWT keys", e);
+            }
+        }
+        if (watchEnabled && watcher == null) {
+            startWatcher();
+        }
+    }
+
+    /**
+     * Build a new ring from disk and swap it in
+     * The previous active key and any removed verification keys stay usable for the overlap window.
+     */
+    public synchronized void reload() throws Exception {
+        JwtSigningAlgorithm configured = JwtSigningAlgorithm.fromConfig(algorithm);
+        PrivateKey privateKey = loadPrivateKey(privateKeyPath);
+        PublicKey publicKey = loadPublicKey(publicKeyPath);
+
+        if (JwtSigningAlgorithm.forKey(privateKey) != configured || JwtSigningAlgorithm.forKey(publicKey) != configured) {
+            throw new IllegalStateException("JWT algorithm " + configured.getHeaderValue()
+                    + " does not match key types " + privateKey.getAlgorithm() + "/" + publicKey.getAlgorithm());
+        }
+        verifyKeyPair(configured, privateKey, publicKey);
+
+        Instant now = clock.instant();
+        String activeKid = kid(publicKey);
+
+        Map<String, JwtKeyRing.VerificationKey> keys = new LinkedHashMap<>();
+        keys.put(activeKid, new JwtKeyRing.VerificationKey(activeKid, publicKey, null));
+        for (PublicKey published : loadVerificationKeys()) {
+            String kid = kid(published);
+            keys.putIfAbsent(kid, new JwtKeyRing.VerificationKey(kid, published, null));
+        }
+
+        JwtKeyRing previous = keyRing.get();
+        if (previous != null) {
+            for (JwtKeyRing.VerificationKey old : previous.getVerificationKeys().values()) {
+                if (keys.containsKey(old.getKid()) || !old.isUsable(now)) {
+                    continue;
+                }
+                Instant usableUntil = old.isRetired() ? old.getUsableUntil() : now.plus(keyOverlap);
+                keys.put(old.getKid(), new JwtKeyRing.VerificationKey(old.getKid(), old.getPublicKey(), usableUntil));
+            }
+        }
+
+        keyRing.set(new JwtKeyRing(configured, activeKid, privateKey, keys));
+
+        // Cached verifications were made against the previous ring
+        verifiedTokenCache.invalidateAll();
+
+        if (previous == null || !previous.getActiveKid().equals(activeKid)) {
+            logger.info("JWT {} signing key {} active ({} verification keys) from {} and {}",
+                    configured.getHeaderValue(), activeKid, keys.size(), privateKeyPath, publicKeyPath);
+        } else {
+            logger.info("JWT key ring reloaded ({} verification keys)", keys.size());
+        }
+    }
+
+    private void startWatcher() {
+        Set<Path> directories = new LinkedHashSet<>();
+        directories.add(parentOf(privateKeyPath));
+        directories.add(parentOf(publicKeyPath));
+        if (!verificationKeysDir.isBlank()) {
+            directories.add(Paths.get(verificationKeysDir).toAbsolutePath());
+        }
+
+        try {
+            watcher = new FileChangeWatcher("jwt-keys", directories, Duration.ofMillis(500), this::reloadQuietly);
+            watcher.start();
+        } catch (IOException e) {
+            logger.warn("JWT key hot reload disabled - cannot watch {}: {}", directories, e.getMessage());
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // Typical during a non-atomic copy of new key files; the next event retries
+            logger.error("JWT key reload failed, keeping current key ring: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    /**
+     * Sign and verify a probe so a half-written key pair never becomes active
+     */
+    private static void verifyKeyPair(JwtSigningAlgorithm algorithm, PrivateKey privateKey, PublicKey publicKey) {
+        String probe = Jwts.builder().subject("key-probe").signWith(privateKey, algorithm.getJwsAlgorithm()).compact();
+        Jwts.parser().verifyWith(publicKey).build().parseSignedClaims(probe);
+    }
+
+    /**
+     * Stable key id shared by every node: base64url SHA-256 of the encoded public key, truncated to 128 bits
+     */
+    static String kid(PublicKey publicKey) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(publicKey.getEncoded());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to derive key id", e);
+        }
+    }
+
+    /**
+     * Additional published public keys (*.pem) from security.jwt.verification-keys-dir
+     */
+    private Set<PublicKey> loadVerificationKeys() throws IOException {
+        Set<PublicKey> keys = new LinkedHashSet<>();
+        if (verificationKeysDir.isBlank()) {
+            return keys;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(verificationKeysDir), "*.pem")) {
+            for (Path file : files) {
+                try {
+                    keys.add(loadPublicKey(file.toString()));
+                } catch (Exception e) {
+                    logger.debug("Skipping {} - not a public key: {}", file, e.getMessage());
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Load PKCS8 private key from file (RSA, EC P-256 or Ed25519)
+     */
+    private static PrivateKey loadPrivateKey(String keyPath) throws Exception {
+        PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(readPem(keyPath));
+        for (JwtSigningAlgorithm candidate : JwtSigningAlgorithm.values()) {
+            try {
+                return KeyFactory.getInstance(candidate.getKeyFactoryAlgorithm()).generatePrivate(keySpec);
+            } catch (InvalidKeySpecException e) {
+                // Not this key type, try the next one
+            }
+        }
+        throw new InvalidKeySpecException("Unsupported private key type in " + keyPath);
+    }
+
+    /**
+     * Load X509 public key from file (RSA, EC P-256 or Ed25519)
+     */
+    private static PublicKey loadPublicKey(String keyPath) throws Exception {
+        X509EncodedKeySpec keySpec = new X509EncodedKeySpec(readPem(keyPath));
+        for (JwtSigningAlgorithm candidate : JwtSigningAlgorithm.values()) {
+            try {
+                return KeyFactory.getInstance(candidate.getKeyFactoryAlgorithm()).generatePublic(keySpec);
+            } catch (InvalidKeySpecException e) {
+                // Not this key type, try the next one
+            }
+        }
+        throw new InvalidKeySpecException("Unsupported public key type in " + keyPath);
+    }
+
+    /**
+     * Strip PEM armour and decode the DER body
+     */
+    private static byte[] readPem(String keyPath) throws IOException {
+        String keyContent = new String(Files.readAllBytes(Paths.get(keyPath)));
+        keyContent = keyContent.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                              .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(keyContent);
+    }
+
+    private static Path parentOf(String keyPath) {
+        Path parent = Paths.get(keyPath).toAbsolutePath().getParent();
+        return parent != null ? parent : Paths.get(".").toAbsolutePath();
+    }
+}
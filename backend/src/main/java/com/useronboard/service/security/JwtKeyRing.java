@@ -0,0 +1,100 @@
+package com.useronboard.service.security;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of JWT key material
+ * One active signing key plus every public key that may still verify tokens, indexed by kid.
+ * Rotations build a new ring and swap it atomically; readers never see a half-updated ring.
+ */
+public final class JwtKeyRing {
+
+    private final JwtSigningAlgorithm algorithm;
+    private final String activeKid;
+    private final PrivateKey signingKey;
+    private final Map<String, VerificationKey> verificationKeys;
+
+    JwtKeyRing(JwtSigningAlgorithm algorithm, String activeKid, PrivateKey signingKey,
+               Map<String, VerificationKey> verificationKeys) {
+        this.algorithm = algorithm;
+        this.activeKid = activeKid;
+        this.signingKey = signingKey;
+        this.verificationKeys = Collections.unmodifiableMap(new LinkedHashMap<>(verificationKeys));
+    }
+
+    public JwtSigningAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public PrivateKey getSigningKey() {
+        return signingKey;
+    }
+
+    public PublicKey getActivePublicKey() {
+        return verificationKeys.get(activeKid).getPublicKey();
+    }
+
+    public Map<String, VerificationKey> getVerificationKeys() {
+        return verificationKeys;
+    }
+
+    /**
+     * Public key for a token's kid header, or null when the kid is unknown or its overlap window has closed
+     * Tokens issued before kid headers existed (kid == null) verify against the active key.
+     */
+    public PublicKey findVerificationKey(String kid, Instant now) {
+        if (kid == null) {
+            return getActivePublicKey();
+        }
+        VerificationKey key = verificationKeys.get(kid);
+        return key != null && key.isUsable(now) ? key.getPublicKey() : null;
+    }
+
+    /**
+     * A public key accepted for verification; retired keys stay usable until their overlap window ends
+     */
+    public static final class VerificationKey {
+
+        private final String kid;
+        private final PublicKey publicKey;
+        private final Instant usableUntil;
+
+        VerificationKey(String kid, PublicKey publicKey, Instant usableUntil) {
+            this.kid = kid;
+            this.publicKey = publicKey;
+            this.usableUntil = usableUntil;
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public PublicKey getPublicKey() {
+            return publicKey;
+        }
+
+        /**
+         * End of the overlap window, or null while the key is still published
+         */
+        public Instant getUsableUntil() {
+            return usableUntil;
+        }
+
+        public boolean isRetired() {
+            return usableUntil != null;
+        }
+
+        public boolean isUsable(Instant now) {
+            return usableUntil == null || now.isBefore(usableUntil);
+        }
+    }
+}
@@ -1,24 +1,23 @@
 package com.useronboard.service.security;
 
 import com.useronboard.service.service.UserService;
+import com.useronboard.service.util.RateLimitedLogger;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.time.Duration;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * JWT Request Filter - validates JWT tokens on each request
@@ -28,13 +27,27 @@ import java.util.stream.Collectors;
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtRequestFilter.class);
+    private static final RateLimitedLogger invalidTokenLog = new RateLimitedLogger(logger, 10, Duration.ofSeconds(1));
 
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final RoleAuthorities roleAuthorities;
+    private final AccessTokenDenylist accessTokenDenylist;
 
-    public JwtRequestFilter(UserService userService, JwtUtil jwtUtil) {
+    public JwtRequestFilter(UserService userService, JwtUtil jwtUtil, RoleAuthorities roleAuthorities,
+                            AccessTokenDenylist accessTokenDenylist) {
         this.userService = userService;
         this.jwtUtil = jwtUtil;
+        this.roleAuthorities = roleAuthorities;
+        this.accessTokenDenylist = accessTokenDenylist;
+    }
+
+    /**
+     * Public routes carry no token worth checking (they normally never reach this filter at all)
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return PublicEndpoints.MATCHER.matches(request);
     }
 
     @Override
@@ -43,48 +56,47 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String userId = null;
-        String jwtToken = null;
+        VerifiedToken verifiedToken = null;
+        List<GrantedAuthority> authorities = null;
 
         // JWT Token is in the form "Bearer token". Remove Bearer word and get only the Token
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
+            String jwtToken = requestTokenHeader.substring(7);
             try {
-                userId = jwtUtil.extractUserId(jwtToken);
-            } catch (IllegalArgumentException e) {
-                logger.error("Unable to get JWT Token");
+                // Single signature check per request; expiry is enforced by the parser
+                verifiedToken = jwtUtil.verifyToken(jwtToken);
+                if (accessTokenDenylist.isRevoked(verifiedToken)) {
+                    logger.debug("JWT Token has been revoked");
+                    verifiedToken = null;
+                } else {
+                    // Authorities are interned per roles string; a missing roles claim rejects the token
+                    authorities = roleAuthorities.forRoles(verifiedToken.getRoles());
+                }
             } catch (ExpiredJwtException e) {
-                logger.error("JWT Token has expired");
+                // Routine: the client refreshes and retries
+                logger.debug("JWT Token has expired");
+            } catch (JwtException | IllegalArgumentException e) {
+                verifiedToken = null;
+                invalidTokenLog.warn("Rejected invalid JWT Token from {}: {}", request.getRemoteAddr(), e.getMessage());
             }
         } else {
             logger.debug("JWT Token does not begin with Bearer String");
         }
 
-        // If we have the token, validate it and set the authentication context
-        if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            // Validate token
-            if (jwtUtil.validateToken(jwtToken, userId)) {
+        // If we have a verified token, set the authentication context
+        if (verifiedToken != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                // Extract user information from token
-                String email = jwtUtil.extractEmail(jwtToken);
-                String roles = jwtUtil.extractRoles(jwtToken);
+            // The principal stays the userId
+            JwtAuthentication authentication = new JwtAuthentication(
+                verifiedToken.getSubject(),
+                verifiedToken.getEmail(),
+                authorities
+            );
 
-                // Create authorities from roles
-                List<SimpleGrantedAuthority> authorities = Arrays.stream(roles.split(","))
-                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role.trim()))
-                    .collect(Collectors.toList());
+            // Set the authentication in the context
+            SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                // Create authentication token
-                UsernamePasswordAuthenticationToken authToken =
-                    new UsernamePasswordAuthenticationToken(userId, null, authorities);
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                // Set the authentication in the context
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-
-                logger.debug("Authentication set for user: {}", email);
-            }
+            logger.debug("Authentication set for user: {}", verifiedToken.getEmail());
         }
 
         chain.doFilter(request, response);
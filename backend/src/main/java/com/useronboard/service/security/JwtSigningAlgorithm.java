@@ -0,0 +1,85 @@
+package com.useronboard.service.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+import java.security.Key;
+import java.security.interfaces.ECKey;
+import java.security.interfaces.EdECKey;
+import java.security.interfaces.RSAKey;
+
+/**
+ * Supported JWS signing modes and the key types they require
+ * Configured through security.jwt.algorithm (RS256, ES256 or EdDSA)
+ */
+public enum JwtSigningAlgorithm {
+
+    RS256("RS256", "RSA", "SHA256withRSA", Jwts.SIG.RS256),
+    // JWS wants the raw R||S signature, not DER
+    ES256("ES256", "EC", "SHA256withECDSAinP1363Format", Jwts.SIG.ES256),
+    EDDSA("EdDSA", "Ed25519", "Ed25519", Jwts.SIG.EdDSA);
+
+    private final String headerValue;
+    private final String keyFactoryAlgorithm;
+    private final String jcaSignatureAlgorithm;
+    private final SignatureAlgorithm jwsAlgorithm;
+
+    JwtSigningAlgorithm(String headerValue, String keyFactoryAlgorithm, String jcaSignatureAlgorithm,
+                        SignatureAlgorithm jwsAlgorithm) {
+        this.headerValue = headerValue;
+        this.keyFactoryAlgorithm = keyFactoryAlgorithm;
+        this.jcaSignatureAlgorithm = jcaSignatureAlgorithm;
+        this.jwsAlgorithm = jwsAlgorithm;
+    }
+
+    /**
+     * Value written to the JWS "alg" header
+     */
+    public String getHeaderValue() {
+        return headerValue;
+    }
+
+    /**
+     * java.security.KeyFactory algorithm used to decode PKCS8/X509 key material
+     */
+    public String getKeyFactoryAlgorithm() {
+        return keyFactoryAlgorithm;
+    }
+
+    /**
+     * java.security.Signature algorithm producing a JWS-compatible signature
+     */
+    public String getJcaSignatureAlgorithm() {
+        return jcaSignatureAlgorithm;
+    }
+
+    public SignatureAlgorithm getJwsAlgorithm() {
+        return jwsAlgorithm;
+    }
+
+    /**
+     * Resolve a configured mode name (case-insensitive, matches enum name or header value)
+     */
+    public static JwtSigningAlgorithm fromConfig(String value) {
+        for (JwtSigningAlgorithm algorithm : values()) {
+            if (algorithm.name().equalsIgnoreCase(value) || algorithm.headerValue.equalsIgnoreCase(value)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported JWT algorithm: " + value + ". Supported: RS256, ES256, EdDSA");
+    }
+
+    /**
+     * Detect the signing mode a decoded key belongs to
+     */
+    public static JwtSigningAlgorithm forKey(Key key) {
+        if (key instanceof RSAKey) {
+            return RS256;
+        } else if (key instanceof ECKey) {
+            return ES256;
+        } else if (key instanceof EdECKey) {
+            return EDDSA;
+        }
+        throw new IllegalArgumentException("Unsupported JWT key type: " + key.getAlgorithm());
+    }
+}
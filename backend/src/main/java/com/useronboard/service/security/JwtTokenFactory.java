@@ -0,0 +1,189 @@
+package com.useronboard.service.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Issues compact JWS tokens without going through the generic JWT builder
+ * The header is encoded once per key ring, expiries are bound once as Durations, and each
+ * thread keeps an initialized Signature for the active key, so issuing a token is one
+ * payload encode plus one sign call. Output is a standard JWS that JwtUtil's parser verifies.
+ */
+@Component
+public class JwtTokenFactory {
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final JwtKeyManager keyManager;
+    private final Clock clock;
+    private final Duration accessTokenExpiry;
+    private final Duration refreshTokenExpiry;
+
+    // Rebuilt only when the key manager publishes a new ring
+    private volatile SigningTemplate template;
+
+    public JwtTokenFactory(JwtKeyManager keyManager,
+                           Clock clock,
+                           @Value("${security.jwt.access-token-expiry:15m}") Duration accessTokenExpiry,
+                           @Value("${security.jwt.refresh-token-expiry:7d}") Duration refreshTokenExpiry) {
+        this.keyManager = keyManager;
+        this.clock = clock;
+        this.accessTokenExpiry = accessTokenExpiry;
+        this.refreshTokenExpiry = refreshTokenExpiry;
+    }
+
+    /**
+     * Signed access token carrying email, roles and a unique id (the denylist key for single-token revocation)
+     */
+    public String createAccessToken(String userId, String email, String roles) {
+        Instant now = clock.instant();
+        StringBuilder payload = new StringBuilder(208);
+        payload.append("{\"email\":");
+        appendJsonString(payload, email);
+        payload.append(",\"roles\":");
+        appendJsonString(payload, roles);
+        payload.append(",\"type\":\"access\",\"jti\":");
+        appendJsonString(payload, UUID.randomUUID().toString());
+        appendRegisteredClaims(payload, userId, now, now.plus(accessTokenExpiry));
+        return sign(payload);
+    }
+
+    /**
+     * Signed refresh token carrying the subject, its rotation family and a unique id
+     * The jti keeps two tokens of one family issued in the same second distinct.
+     */
+    public String createRefreshToken(String userId, String familyId) {
+        Instant now = clock.instant();
+        StringBuilder payload = new StringBuilder(176);
+        payload.append("{\"type\":\"refresh\",\"fid\":");
+        appendJsonString(payload, familyId);
+        payload.append(",\"jti\":");
+        appendJsonString(payload, UUID.randomUUID().toString());
+        appendRegisteredClaims(payload, userId, now, now.plus(refreshTokenExpiry));
+        return sign(payload);
+    }
+
+    /**
+     * Signed refresh token for stateless refresh: valid while the user's session epoch is unchanged
+     */
+    public String createStatelessRefreshToken(String userId, int sessionEpoch) {
+        Instant now = clock.instant();
+        StringBuilder payload = new StringBuilder(160);
+        payload.append("{\"type\":\"refresh\",\"sep\":").append(sessionEpoch);
+        payload.append(",\"jti\":");
+        appendJsonString(payload, UUID.randomUUID().toString());
+        appendRegisteredClaims(payload, userId, now, now.plus(refreshTokenExpiry));
+        return sign(payload);
+    }
+
+    public Duration getAccessTokenExpiry() {
+        return accessTokenExpiry;
+    }
+
+    public Duration getRefreshTokenExpiry() {
+        return refreshTokenExpiry;
+    }
+
+    private static void appendRegisteredClaims(StringBuilder payload, String userId, Instant issuedAt, Instant expiresAt) {
+        payload.append(",\"sub\":");
+        appendJsonString(payload, userId);
+        payload.append(",\"iat\":").append(issuedAt.getEpochSecond());
+        payload.append(",\"exp\":").append(expiresAt.getEpochSecond());
+        payload.append('}');
+    }
+
+    private String sign(StringBuilder payload) {
+        SigningTemplate current = currentTemplate();
+        byte[] payloadBytes = payload.toString().getBytes(StandardCharsets.UTF_8);
+        String signingInput = current.encodedHeader + BASE64URL.encodeToString(payloadBytes);
+        try {
+            Signature signature = current.signatures.get();
+            signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            // sign() resets the instance for the next token on this thread
+            return signingInput + '.' + BASE64URL.encodeToString(signature.sign());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign JWT", e);
+        }
+    }
+
+    private SigningTemplate currentTemplate() {
+        JwtKeyRing ring = keyManager.getKeyRing();
+        SigningTemplate current = template;
+        if (current == null || current.ring != ring) {
+            current = new SigningTemplate(ring);
+            template = current;
+        }
+        return current;
+    }
+
+    /**
+     * Minimal JSON string encoding for claim values
+     */
+    static void appendJsonString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Encoded header and per-thread signers bound to one key ring
+     */
+    private static final class SigningTemplate {
+
+        private final JwtKeyRing ring;
+        private final String encodedHeader;
+        private final ThreadLocal<Signature> signatures;
+
+        SigningTemplate(JwtKeyRing ring) {
+            this.ring = ring;
+
+            StringBuilder header = new StringBuilder(64);
+            header.append("{\"kid\":");
+            appendJsonString(header, ring.getActiveKid());
+            header.append(",\"alg\":");
+            appendJsonString(header, ring.getAlgorithm().getHeaderValue());
+            header.append('}');
+            this.encodedHeader = BASE64URL.encodeToString(header.toString().getBytes(StandardCharsets.UTF_8)) + '.';
+
+            String jcaAlgorithm = ring.getAlgorithm().getJcaSignatureAlgorithm();
+            this.signatures = ThreadLocal.withInitial(() -> {
+                try {
+                    Signature signature = Signature.getInstance(jcaAlgorithm);
+                    signature.initSign(ring.getSigningKey());
+                    return signature;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("Cannot initialize " + jcaAlgorithm + " signer", e);
+                }
+            });
+        }
+    }
+}
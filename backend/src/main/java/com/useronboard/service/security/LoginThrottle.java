@@ -0,0 +1,138 @@
+package com.useronboard.service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory login rate limiter keyed by email and by client IP
+ * Checked in AuthController before any database lookup or password hashing, so abusive
+ * sources are shed for the cost of a map lookup. Each key owns a lock-free token bucket;
+ * both key tables are bounded and forget keys that have been idle.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginThrottle.class);
+
+    private final boolean enabled;
+    private final Clock clock;
+    private final KeyedBuckets byEmail;
+    private final KeyedBuckets byIp;
+
+    public LoginThrottle(@Value("${security.login-throttle.enabled:true}") boolean enabled,
+                         @Value("${security.login-throttle.email.capacity:5}") int emailCapacity,
+                         @Value("${security.login-throttle.email.refill-period:1m}") Duration emailRefillPeriod,
+                         @Value("${security.login-throttle.ip.capacity:20}") int ipCapacity,
+                         @Value("${security.login-throttle.ip.refill-period:1m}") Duration ipRefillPeriod,
+                         @Value("${security.login-throttle.maximum-keys:100000}") long maximumKeys,
+                         @Value("${security.login-throttle.idle-expiry:15m}") Duration idleExpiry,
+                         Clock clock,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.clock = clock;
+        this.byEmail = new KeyedBuckets("email", emailCapacity, emailRefillPeriod, maximumKeys, idleExpiry, meterRegistry);
+        this.byIp = new KeyedBuckets("ip", ipCapacity, ipRefillPeriod, maximumKeys, idleExpiry, meterRegistry);
+
+        if (enabled) {
+            logger.info("Login throttle enabled (email: {} per {}, ip: {} per {}, maximumKeys={})",
+                    emailCapacity, emailRefillPeriod, ipCapacity, ipRefillPeriod, maximumKeys);
+        }
+    }
+
+    /**
+     * Take one login attempt for this email and client address
+     *
+     * @return 0 when the attempt may proceed, otherwise the seconds until the next attempt is allowed
+     */
+    public long acquire(String email, String clientIp) {
+        if (!enabled) {
+            return 0;
+        }
+        long nowMillis = clock.millis();
+
+        long waitMillis = clientIp != null ? byIp.acquire(clientIp, nowMillis) : 0;
+        if (waitMillis == 0 && email != null) {
+            waitMillis = byEmail.acquire(email.trim().toLowerCase(Locale.ROOT), nowMillis);
+        }
+        return waitMillis == 0 ? 0 : Math.max(1, (waitMillis + 999) / 1000);
+    }
+
+    /**
+     * Bounded table of buckets for one key type, with a rejection counter and a size gauge
+     */
+    private static final class KeyedBuckets {
+
+        private final int capacity;
+        private final long intervalMillis;
+        private final Cache<String, TokenBucket> buckets;
+        private final Counter rejected;
+
+        KeyedBuckets(String keyType, int capacity, Duration refillPeriod, long maximumKeys, Duration idleExpiry,
+                     MeterRegistry meterRegistry) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("Login throttle " + keyType + " capacity must be at least 1");
+            }
+            this.capacity = capacity;
+            this.intervalMillis = Math.max(1, refillPeriod.toMillis() / capacity);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maximumKeys)
+                    .expireAfterAccess(idleExpiry)
+                    .build();
+            this.rejected = Counter.builder("auth.login.throttled")
+                    .description("Login attempts rejected by the throttle before any hashing")
+                    .tag("key", keyType)
+                    .register(meterRegistry);
+            Gauge.builder("auth.login.throttle.keys", buckets, Cache::estimatedSize)
+                    .description("Keys currently tracked by the login throttle")
+                    .tag("key", keyType)
+                    .register(meterRegistry);
+        }
+
+        long acquire(String key, long nowMillis) {
+            long waitMillis = buckets.get(key, k -> new TokenBucket()).tryAcquire(nowMillis, intervalMillis, capacity);
+            if (waitMillis > 0) {
+                rejected.increment();
+            }
+            return waitMillis;
+        }
+    }
+
+    /**
+     * Token bucket in GCRA form: one "theoretical arrival time" updated by CAS
+     * One token refills every interval, up to capacity tokens of burst.
+     */
+    static final class TokenBucket {
+
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+        /**
+         * @return 0 if a token was taken, otherwise milliseconds until one is available
+         */
+        long tryAcquire(long nowMillis, long intervalMillis, int capacity) {
+            long burstTolerance = intervalMillis * (capacity - 1);
+            while (true) {
+                long current = theoreticalArrival.get();
+                long base = Math.max(current, nowMillis);
+                long allowedAt = base - burstTolerance;
+                if (allowedAt > nowMillis) {
+                    return allowedAt - nowMillis;
+                }
+                if (theoreticalArrival.compareAndSet(current, base + intervalMillis)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
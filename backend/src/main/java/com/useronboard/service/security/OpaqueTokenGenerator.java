@@ -0,0 +1,46 @@
+package com.useronboard.service.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 256-bit random opaque tokens, base64url without padding (43 characters)
+ * Drawn from NativePRNGNonBlocking (/dev/urandom), which never waits for entropy, so a fresh container
+ * under login load cannot stall here. Platforms without it fall back to the default SecureRandom.
+ */
+@Component
+public class OpaqueTokenGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpaqueTokenGenerator.class);
+
+    static final int TOKEN_BYTES = 32;
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecureRandom random;
+
+    public OpaqueTokenGenerator() {
+        this.random = nonBlockingSecureRandom();
+    }
+
+    public String generate() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return BASE64URL.encodeToString(bytes);
+    }
+
+    private static SecureRandom nonBlockingSecureRandom() {
+        try {
+            return SecureRandom.getInstance("NativePRNGNonBlocking");
+        } catch (NoSuchAlgorithmException e) {
+            SecureRandom fallback = new SecureRandom();
+            logger.info("NativePRNGNonBlocking not available, using {} for opaque tokens", fallback.getAlgorithm());
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.useronboard.service.security;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Password encoders shared by SecurityConfig and the calibration tool
+ * Hashes are stored with an {id} prefix so the algorithm and cost can change without
+ * invalidating existing passwords; hashes written before prefixes existed are plain BCrypt.
+ */
+public final class PasswordEncoders {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+
+    private PasswordEncoders() {
+    }
+
+    /**
+     * Delegating encoder that writes {encoderId} hashes and can verify every supported id
+     */
+    public static PasswordEncoder delegating(String encoderId, int bcryptCost,
+                                             int argon2MemoryKib, int argon2Iterations, int argon2Parallelism) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt(bcryptCost));
+        encoders.put(ARGON2, argon2(argon2MemoryKib, argon2Iterations, argon2Parallelism));
+
+        if (!encoders.containsKey(encoderId)) {
+            throw new IllegalArgumentException("Unsupported password encoder: " + encoderId + ". Supported: " + encoders.keySet());
+        }
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(encoderId, encoders);
+        // Legacy unprefixed hashes; BCrypt verifies any cost, and upgradeEncoding flags them for rewrite
+        encoder.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        return encoder;
+    }
+
+    public static PasswordEncoder bcrypt(int cost) {
+        return new BCryptPasswordEncoder(cost);
+    }
+
+    public static PasswordEncoder argon2(int memoryKib, int iterations, int parallelism) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, parallelism, memoryKib, iterations);
+    }
+}
@@ -0,0 +1,26 @@
+package com.useronboard.service.security;
+
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+/**
+ * Routes that never need a caller identity: probes, scrapes, login, registration and API docs
+ * Compiled once; SecurityConfig serves them from a minimal filter chain and JwtRequestFilter skips them.
+ */
+final class PublicEndpoints {
+
+    static final RequestMatcher MATCHER = new OrRequestMatcher(
+            new AntPathRequestMatcher("/actuator/health"),
+            new AntPathRequestMatcher("/actuator/health/**"),
+            new AntPathRequestMatcher("/actuator/info"),
+            new AntPathRequestMatcher("/actuator/prometheus"),
+            new AntPathRequestMatcher("/api/v1/auth/register"),
+            new AntPathRequestMatcher("/api/v1/auth/login"),
+            new AntPathRequestMatcher("/swagger-ui/**"),
+            new AntPathRequestMatcher("/v3/api-docs/**")
+    );
+
+    private PublicEndpoints() {
+    }
+}
@@ -0,0 +1,53 @@
+package com.useronboard.service.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interned authority lists keyed by the roles claim ("USER", "ADMIN", "USER,ADMIN")
+ * There are only a few distinct role combinations, so each is parsed once and the same
+ * immutable list is shared by every request carrying it.
+ */
+@Component
+public class RoleAuthorities {
+
+    // Roles come from signed tokens, but cap the table anyway so it can never grow unbounded
+    static final int MAX_INTERNED = 256;
+
+    private final ConcurrentMap<String, List<GrantedAuthority>> interned = new ConcurrentHashMap<>();
+
+    /**
+     * Immutable ROLE_-prefixed authorities for a comma-separated roles string
+     * Throws IllegalArgumentException when the roles claim is missing or blank: such a token must not authenticate
+     */
+    public List<GrantedAuthority> forRoles(String roles) {
+        if (roles == null || roles.isBlank()) {
+            throw new IllegalArgumentException("Token carries no roles claim");
+        }
+        List<GrantedAuthority> authorities = interned.get(roles);
+        if (authorities != null) {
+            return authorities;
+        }
+        if (interned.size() >= MAX_INTERNED) {
+            return parse(roles);
+        }
+        return interned.computeIfAbsent(roles, RoleAuthorities::parse);
+    }
+
+    private static List<GrantedAuthority> parse(String roles) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (String role : roles.split(",")) {
+            String trimmed = role.trim();
+            if (!trimmed.isEmpty()) {
+                authorities.add(new SimpleGrantedAuthority("ROLE_" + trimmed));
+            }
+        }
+        return List.copyOf(authorities);
+    }
+}
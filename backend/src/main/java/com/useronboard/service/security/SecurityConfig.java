@@ -1,7 +1,10 @@
 package com.useronboard.service.security;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -9,7 +12,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -37,9 +39,17 @@ public class SecurityConfig {
         this.jwtRequestFilter = jwtRequestFilter;
     }
 
+    /**
+     * {id}-prefixed password hashes; stored hashes below the configured algorithm/cost are
+     * rewritten on the user's next successful login (see UserService.authenticateUser)
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12); // Strong BCrypt with 12 rounds
+    public PasswordEncoder passwordEncoder(@Value("${security.password.encoder:bcrypt}") String encoderId,
+                                           @Value("${security.password.bcrypt.cost:12}") int bcryptCost,
+                                           @Value("${security.password.argon2.memory-kib:19456}") int argon2MemoryKib,
+                                           @Value("${security.password.argon2.iterations:2}") int argon2Iterations,
+                                           @Value("${security.password.argon2.parallelism:1}") int argon2Parallelism) {
+        return PasswordEncoders.delegating(encoderId, bcryptCost, argon2MemoryKib, argon2Iterations, argon2Parallelism);
     }
 
     @Bean
@@ -47,18 +57,36 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * Public routes: no JWT filter, security context, session, request cache or anonymous user
+     * Health probes and Prometheus scrapes only pass header writing and CORS.
+     */
     @Bean
+    @Order(1)
+    public SecurityFilterChain publicFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher(PublicEndpoints.MATCHER)
+            .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+            .csrf(csrf -> csrf.disable())
+            .securityContext(context -> context.disable())
+            .sessionManagement(session -> session.disable())
+            .requestCache(cache -> cache.disable())
+            .anonymous(anonymous -> anonymous.disable())
+            .servletApi(servletApi -> servletApi.disable())
+            .exceptionHandling(ex -> ex.disable())
+            .logout(logout -> logout.disable());
+
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .exceptionHandling(ex -> ex.authenticationEntryPoint(jwtAuthenticationEntryPoint))
             .authorizeHttpRequests(authz -> authz
-                // Public endpoints
-                .requestMatchers("/api/v1/auth/register", "/api/v1/auth/login").permitAll()
-                .requestMatchers("/actuator/health", "/actuator/info").permitAll()
-                .requestMatchers("/actuator/prometheus").permitAll()
-                .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                // Public endpoints are served by publicFilterChain and never reach this chain
 
                 // Admin endpoints - require ADMIN role
                 .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
@@ -67,7 +95,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.POST, "/api/v1/users/*/reject").hasRole("ADMIN")
 
                 // Authenticated endpoints
-                .requestMatchers("/api/v1/auth/refresh", "/api/v1/auth/logout").authenticated()
+                .requestMatchers("/api/v1/auth/refresh", "/api/v1/auth/logout", "/api/v1/auth/sessions").authenticated()
                 .requestMatchers("/api/v1/users/me").authenticated()
 
                 // All other requests require authentication
@@ -80,6 +108,17 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * JwtRequestFilter is a @Component, which Spring Boot would also register as a servlet filter
+     * running on every request; it belongs only in the security chain above
+     */
+    @Bean
+    public FilterRegistrationBean<JwtRequestFilter> jwtRequestFilterRegistration(JwtRequestFilter filter) {
+        FilterRegistrationBean<JwtRequestFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,85 @@
+package com.useronboard.service.security;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Result of a single signature-verified parse of an access token
+ * Carries the claims the request filter needs so the token is never parsed twice
+ */
+public final class VerifiedToken {
+
+    private final String subject;
+    private final String email;
+    private final String roles;
+    private final String tokenId;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+
+    public VerifiedToken(String subject, String email, String roles, String tokenId, Instant issuedAt, Instant expiresAt) {
+        this.subject = subject;
+        this.email = email;
+        this.roles = roles;
+        this.tokenId = tokenId;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRoles() {
+        return roles;
+    }
+
+    /**
+     * The jti claim; null for tokens issued before it was added
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        VerifiedToken that = (VerifiedToken) o;
+        return Objects.equals(subject, that.subject) &&
+               Objects.equals(email, that.email) &&
+               Objects.equals(roles, that.roles) &&
+               Objects.equals(tokenId, that.tokenId) &&
+               Objects.equals(issuedAt, that.issuedAt) &&
+               Objects.equals(expiresAt, that.expiresAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(subject, email, roles, tokenId, issuedAt, expiresAt);
+    }
+
+    @Override
+    public String toString() {
+        return "VerifiedToken{" +
+                "subject='" + subject + '\'' +
+                ", roles='" + roles + '\'' +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
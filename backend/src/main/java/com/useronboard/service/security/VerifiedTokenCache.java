@@ -0,0 +1,136 @@
+package com.useronboard.service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Optional in-process cache of signature-verified access tokens
+ * Keyed by SHA-256 of the compact token so repeat requests skip the public-key math.
+ * Entries never outlive the token's own exp claim.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private final boolean enabled;
+    private final Clock clock;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${security.jwt.verified-cache.enabled:false}") boolean enabled,
+                              @Value("${security.jwt.verified-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${security.jwt.verified-cache.ttl:5m}") Duration ttl,
+                              Clock clock,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new CappedAtTokenExpiry(ttl, clock))
+                .recordStats()
+                .build();
+
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+            logger.info("Verified JWT cache enabled (maximumSize={}, ttl={})", maximumSize, ttl);
+        }
+    }
+
+    /**
+     * Return the cached verification for this exact token, or run the verifier and cache its result.
+     * Verifier exceptions propagate and nothing is cached for the token.
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        if (!enabled) {
+            return verifier.apply(token);
+        }
+
+        VerifiedToken verifiedToken = cache.get(digest(token), key -> verifier.apply(token));
+        if (verifiedToken.isExpired(clock.instant())) {
+            // Expiry is lazy in Caffeine; never hand out a token past its exp
+            cache.invalidate(digest(token));
+            return verifier.apply(token);
+        }
+        return verifiedToken;
+    }
+
+    /**
+     * Drop every entry (signing keys rotated)
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Drop every entry issued to a user (sessions revoked)
+     */
+    public void invalidateUser(String userId) {
+        if (enabled) {
+            cache.asMap().values().removeIf(token -> userId.equals(token.getSubject()));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Per-entry lifetime: the configured TTL, but never past the token's exp
+     */
+    private static final class CappedAtTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        private final Duration ttl;
+        private final Clock clock;
+
+        CappedAtTokenExpiry(Duration ttl, Clock clock) {
+            this.ttl = ttl;
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            if (value.getExpiresAt() == null) {
+                return ttl.toNanos();
+            }
+            Duration untilExpiry = Duration.between(clock.instant(), value.getExpiresAt());
+            if (untilExpiry.compareTo(ttl) >= 0) {
+                return ttl.toNanos();
+            }
+            return Math.max(0L, untilExpiry.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package com.useronboard.service.service;
 
 import com.useronboard.service.dto.AuthResponse;
-import com.useronboard.service.dto.LoginRequest;
+import com.useronboard.service.dto.SessionResponse;
 import com.useronboard.service.dto.UserResponse;
 import com.useronboard.service.entity.RefreshToken;
 import com.useronboard.service.entity.User;
+import com.useronboard.service.exception.InvalidCredentialsException;
+import com.useronboard.service.exception.InvalidTokenException;
+import com.useronboard.service.messaging.UserEventPublisher;
+import com.useronboard.service.repository.RefreshTokenFamily;
 import com.useronboard.service.repository.RefreshTokenRepository;
+import com.useronboard.service.repository.UserAuthView;
+import com.useronboard.service.repository.UserSessionView;
+import com.useronboard.service.security.AccessTokenDenylist;
 import com.useronboard.service.security.JwtUtil;
+import com.useronboard.service.security.OpaqueTokenGenerator;
+import com.useronboard.service.security.VerifiedToken;
+import com.useronboard.service.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,9 +27,16 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Authentication service handling JWT token operations
@@ -29,46 +48,86 @@ public class AuthService {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
 
-    @Value("${security.jwt.access-token-expiry:15m}")
-    private String accessTokenExpiry;
-
-    @Value("${security.jwt.refresh-token-expiry:7d}")
-    private String refreshTokenExpiry;
-
     private final UserService userService;
     private final JwtUtil jwtUtil;
     private final RefreshTokenRepository refreshTokenRepository;
-
-    public AuthService(UserService userService, JwtUtil jwtUtil, RefreshTokenRepository refreshTokenRepository) {
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RefreshTokenCache refreshTokenCache;
+    private final RefreshTokenWriteBehind refreshTokenWriteBehind;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final UserEventPublisher eventPublisher;
+    private final SessionEpochCache sessionEpochCache;
+    private final OpaqueTokenGenerator opaqueTokenGenerator;
+    private final Clock clock;
+    private final boolean rotationEnabled;
+    private final boolean statelessRefresh;
+    private final boolean opaqueRefresh;
+    private final int maxSessionsPerUser;
+
+    public AuthService(UserService userService, JwtUtil jwtUtil, RefreshTokenRepository refreshTokenRepository,
+                       VerifiedTokenCache verifiedTokenCache, RefreshTokenCache refreshTokenCache,
+                       RefreshTokenWriteBehind refreshTokenWriteBehind, AccessTokenDenylist accessTokenDenylist, UserEventPublisher eventPublisher,
+                       SessionEpochCache sessionEpochCache, OpaqueTokenGenerator opaqueTokenGenerator, Clock clock,
+                       @Value("${security.jwt.refresh-rotation.enabled:false}") boolean rotationEnabled,
+                       @Value("${security.jwt.stateless-refresh.enabled:false}") boolean statelessRefresh,
+                       @Value("${security.jwt.opaque-refresh.enabled:false}") boolean opaqueRefresh,
+                       @Value("${security.sessions.max-per-user:10}") int maxSessionsPerUser) {
+        if (rotationEnabled && statelessRefresh) {
+            throw new IllegalStateException("Refresh rotation needs stored tokens; it cannot be combined with stateless refresh");
+        }
+        if (opaqueRefresh && statelessRefresh) {
+            throw new IllegalStateException("Opaque refresh tokens carry no claims; they cannot be combined with stateless refresh");
+        }
         this.userService = userService;
         this.jwtUtil = jwtUtil;
         this.refreshTokenRepository = refreshTokenRepository;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.refreshTokenCache = refreshTokenCache;
+        this.refreshTokenWriteBehind = refreshTokenWriteBehind;
+        this.accessTokenDenylist = accessTokenDenylist;
+        this.eventPublisher = eventPublisher;
+        this.sessionEpochCache = sessionEpochCache;
+        this.opaqueTokenGenerator = opaqueTokenGenerator;
+        this.clock = clock;
+        this.rotationEnabled = rotationEnabled;
+        this.statelessRefresh = statelessRefresh;
+        this.opaqueRefresh = opaqueRefresh;
+        this.maxSessionsPerUser = maxSessionsPerUser;
     }
 
     /**
      * Authenticate user and generate tokens
+     * The candidate comes from UserService.findLoginCandidate and its password was checked on the hashing pool.
      */
-    public AuthResponse login(LoginRequest loginRequest) {
-        logger.info("User login attempt: {}", loginRequest.getEmail());
+    public AuthResponse login(User candidate, String password, boolean passwordMatches) {
+        logger.info("User login attempt: {}", candidate.getEmail());
 
         // Authenticate user
-        Optional<User> userOpt = userService.authenticateUser(
-            loginRequest.getEmail(),
-            loginRequest.getPassword()
-        );
+        Optional<User> userOpt = userService.authenticateUser(candidate, password, passwordMatches);
 
         if (userOpt.isEmpty()) {
-            throw new IllegalArgumentException("Invalid credentials");
+            throw new InvalidCredentialsException();
         }
 
         User user = userOpt.get();
 
         // Generate tokens
         String accessToken = jwtUtil.generateAccessToken(user.getId(), user.getEmail(), user.getRoles());
-        String refreshToken = jwtUtil.generateRefreshToken(user.getId());
-
-        // Store refresh token in database
-        storeRefreshToken(user.getId(), refreshToken);
+        String refreshToken;
+        if (statelessRefresh) {
+            // Nothing stored: the token is checked against the user's session epoch
+            refreshToken = jwtUtil.generateStatelessRefreshToken(user.getId(), user.getSessionEpoch());
+        } else {
+            String familyId = UUID.randomUUID().toString();
+            refreshToken = newRefreshToken(user.getId(), familyId);
+
+            // Make room for this session, then store refresh token in database
+            enforceSessionCap(user.getId());
+            // Rotating refreshes always go to the database, so only the static mode reads the near-cache
+            storeRefreshToken(user.getId(), refreshToken, familyId, rotationEnabled ? null
+                : stored -> refreshTokenCache.put(stored.getTokenHash(), new RefreshTokenCache.Entry(user.getId(),
+                    user.getEmail(), user.getRoles(), user.getStatus(), stored.getExpiresAt(), false)));
+        }
 
         // Convert user to response
         UserResponse userResponse = new UserResponse(
@@ -79,96 +138,335 @@ public class AuthService {
 
         logger.info("User logged in successfully: {}", user.getEmail());
 
-        return new AuthResponse(accessToken, getExpiryInSeconds(accessTokenExpiry), userResponse);
+        AuthResponse response = new AuthResponse(accessToken, getAccessTokenExpiryInSeconds(), userResponse);
+        response.setRefreshToken(refreshToken);
+        return response;
     }
 
     /**
      * Refresh access token using refresh token
+     * With rotation enabled the presented token is consumed and a new one in the same family is
+     * returned; otherwise the same refresh token stays valid until it expires. Stateless refresh
+     * checks the token against the user's session epoch instead of a stored row.
      */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
     public AuthResponse refreshToken(String refreshTokenValue) {
+        if (rotationEnabled) {
+            return rotateRefreshToken(refreshTokenValue);
+        }
+        if (statelessRefresh) {
+            return refreshStateless(refreshTokenValue);
+        }
         logger.debug("Refreshing access token");
 
         // Hash the refresh token to find it in database
         String tokenHash = hashToken(refreshTokenValue);
 
-        // Find valid refresh token
-        Optional<RefreshToken> tokenOpt = refreshTokenRepository.findValidTokenByHash(
-            tokenHash, LocalDateTime.now()
-        );
-
-        if (tokenOpt.isEmpty()) {
-            throw new IllegalArgumentException("Invalid or expired refresh token");
-        }
-
-        RefreshToken refreshToken = tokenOpt.get();
+        // A token still queued for insert is read from the write-behind overlay and never cached: its
+        // batch may yet fail. Otherwise near-cache first, owner included; a miss reads the token and
+        // its owner in one joined query
+        RefreshToken queued = refreshTokenWriteBehind.findPending(tokenHash);
+        RefreshTokenCache.Entry user = queued != null
+            ? pendingEntry(queued)
+            : refreshTokenCache.get(tokenHash, this::loadValidRefreshToken);
 
-        // Get user details
-        Optional<UserResponse> userOpt = userService.getUserById(refreshToken.getUserId());
-        if (userOpt.isEmpty()) {
-            throw new IllegalArgumentException("User not found");
+        if (user == null || !user.isValid(LocalDateTime.now(clock))) {
+            throw new InvalidTokenException();
         }
-
-        UserResponse user = userOpt.get();
+        requireActive(user, user.getUserId());
 
         // Generate new access token
         String newAccessToken = jwtUtil.generateAccessToken(
-            user.getId(), user.getEmail(), user.getRoles()
+            user.getUserId(), user.getEmail(), user.getRoles()
         );
 
         logger.debug("Access token refreshed successfully for user: {}", user.getEmail());
 
-        return new AuthResponse(newAccessToken, getExpiryInSeconds(accessTokenExpiry), user);
+        AuthResponse response = new AuthResponse(newAccessToken, getAccessTokenExpiryInSeconds(), toUserResponse(user));
+        response.setRefreshToken(refreshTokenValue);
+        return response;
+    }
+
+    /**
+     * Rotating refresh: one conditional update consumes the old token, one insert stores its successor
+     * Subject and family come from the verified token itself, so nothing is read back first; an opaque
+     * token carries neither, so they are read from its row. A token that can no longer be consumed has
+     * been used before (or logged out), so its whole family is revoked; that statement only runs on the
+     * failure path.
+     */
+    private AuthResponse rotateRefreshToken(String refreshTokenValue) {
+        logger.debug("Rotating refresh token");
+
+        String tokenHash = hashToken(refreshTokenValue);
+        String userId;
+        String familyId;
+        if (opaqueRefresh) {
+            refreshTokenWriteBehind.awaitPending(tokenHash);
+            // Consumed rows count too: reuse of one must still find the family to revoke
+            RefreshTokenFamily stored = refreshTokenRepository.findFamilyByHash(tokenHash)
+                .orElseThrow(InvalidTokenException::new);
+            userId = stored.getUserId();
+            familyId = stored.getFamilyId();
+        } else {
+            Claims claims;
+            try {
+                claims = jwtUtil.verifyRefreshToken(refreshTokenValue);
+            } catch (JwtException e) {
+                throw new InvalidTokenException();
+            }
+            userId = claims.getSubject();
+            familyId = claims.get("fid", String.class);
+            refreshTokenWriteBehind.awaitPending(tokenHash);
+        }
+        int consumed = refreshTokenRepository.consumeValidToken(tokenHash, userId, LocalDateTime.now(clock));
+        if (consumed == 0) {
+            if (familyId != null) {
+                int revoked = refreshTokenRepository.revokeFamily(familyId);
+                if (revoked > 0) {
+                    logger.warn("Refresh token reuse detected for user {} - revoked {} tokens in family {}",
+                        userId, revoked, familyId);
+                }
+            }
+            throw new InvalidTokenException();
+        }
+
+        UserAuthView user = userService.getAuthViewById(userId).orElse(null);
+        requireActive(user, userId);
+
+        // Tokens issued before families existed start a new family on first rotation
+        String nextFamilyId = familyId != null ? familyId : UUID.randomUUID().toString();
+        String nextRefreshToken = newRefreshToken(userId, nextFamilyId);
+        storeRefreshToken(userId, nextRefreshToken, nextFamilyId, null);
+
+        String newAccessToken = jwtUtil.generateAccessToken(user.getUserId(), user.getEmail(), user.getRoles());
+
+        logger.debug("Refresh token rotated for user: {}", user.getEmail());
+
+        AuthResponse response = new AuthResponse(newAccessToken, getAccessTokenExpiryInSeconds(), toUserResponse(user));
+        response.setRefreshToken(nextRefreshToken);
+        return response;
+    }
+
+    /**
+     * Stateless refresh: signature, expiry and session epoch; no refresh_tokens lookup
+     * The epoch comes from the session epoch cache, so a hit costs no database round trip.
+     */
+    private AuthResponse refreshStateless(String refreshTokenValue) {
+        Claims claims;
+        try {
+            claims = jwtUtil.verifyRefreshToken(refreshTokenValue);
+        } catch (JwtException e) {
+            throw new InvalidTokenException();
+        }
+        String userId = claims.getSubject();
+        Number tokenEpoch = claims.get("sep", Number.class);
+        // Tokens issued in the stored mode carry no epoch and are refused rather than trusted unchecked
+        if (tokenEpoch == null || accessTokenDenylist.isTokenRevoked(claims.getId())) {
+            throw new InvalidTokenException();
+        }
+
+        UserSessionView user = sessionEpochCache.get(userId, id -> userService.getSessionViewById(id).orElse(null));
+        requireActive(user, userId);
+        if (user.getSessionEpoch() != tokenEpoch.intValue()) {
+            throw new InvalidTokenException();
+        }
+
+        String newAccessToken = jwtUtil.generateAccessToken(user.getUserId(), user.getEmail(), user.getRoles());
+
+        AuthResponse response = new AuthResponse(newAccessToken, getAccessTokenExpiryInSeconds(), toUserResponse(user));
+        response.setRefreshToken(refreshTokenValue);
+        return response;
     }
 
     /**
      * Logout user by revoking refresh token
+     * A stateless refresh token has no row; its jti goes on the denylist until it expires.
      */
     public void logout(String refreshTokenValue) {
         logger.debug("User logout - revoking refresh token");
 
+        if (statelessRefresh) {
+            revokeStatelessRefreshToken(refreshTokenValue);
+            return;
+        }
+
         String tokenHash = hashToken(refreshTokenValue);
+        refreshTokenWriteBehind.awaitPending(tokenHash);
         refreshTokenRepository.revokeTokenByHash(tokenHash);
+        refreshTokenCache.evict(tokenHash);
 
         logger.debug("Refresh token revoked successfully");
     }
 
+    private void revokeStatelessRefreshToken(String refreshTokenValue) {
+        Claims claims;
+        try {
+            claims = jwtUtil.verifyRefreshToken(refreshTokenValue);
+        } catch (JwtException e) {
+            // Already unusable
+            return;
+        }
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            return;
+        }
+        Instant expiresAt = claims.getExpiration().toInstant();
+        accessTokenDenylist.revokeToken(claims.getId(), expiresAt);
+        eventPublisher.publishAccessTokenRevokedEvent(claims.getSubject(), claims.getId(), expiresAt);
+    }
+
+    /**
+     * Reject an access token on every node until it expires (logout of the current session)
+     */
+    public void revokeAccessToken(String accessToken) {
+        VerifiedToken token;
+        try {
+            token = jwtUtil.verifyToken(accessToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Already unusable
+            return;
+        }
+        if (token.getTokenId() == null || token.getExpiresAt() == null) {
+            return;
+        }
+        accessTokenDenylist.revokeToken(token.getTokenId(), token.getExpiresAt());
+        eventPublisher.publishAccessTokenRevokedEvent(token.getSubject(), token.getTokenId(), token.getExpiresAt());
+    }
+
     /**
      * Logout user from all sessions (revoke all refresh tokens)
      */
     public void logoutAllSessions(String userId) {
         logger.info("Logging out user from all sessions: {}", userId);
 
-        int revokedCount = refreshTokenRepository.revokeAllUserTokens(userId);
+        if (statelessRefresh) {
+            // One row instead of every refresh token: tokens from the old epoch stop refreshing
+            userService.incrementSessionEpoch(userId);
+            sessionEpochCache.evictUser(userId);
+            logger.info("Started a new session epoch for user: {}", userId);
+        } else {
+            refreshTokenWriteBehind.awaitPendingForUser(userId);
+            int revokedCount = refreshTokenRepository.revokeAllUserTokens(userId);
+            refreshTokenCache.evictUser(userId);
+            logger.info("Revoked {} refresh tokens for user: {}", revokedCount, userId);
+        }
+        verifiedTokenCache.invalidateUser(userId);
+
+        // Access tokens already issued are rejected from now on, here and on every other node.
+        // Issued-at is whole seconds, so a token signed earlier in this second carries this second:
+        // the cut starts at the next one (a login later in the same second is rejected too).
+        Instant notBefore = clock.instant().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        accessTokenDenylist.revokeUser(userId, notBefore);
+        eventPublisher.publishAllAccessTokensRevokedEvent(userId, notBefore);
+    }
 
-        logger.info("Revoked {} refresh tokens for user: {}", revokedCount, userId);
+    /**
+     * Live sessions of a user, newest first; {@code current} marks the one presenting this refresh token
+     */
+    @Transactional(readOnly = true)
+    public List<SessionResponse> listSessions(String userId, String currentRefreshToken) {
+        String currentHash = currentRefreshToken != null ? hashToken(currentRefreshToken) : null;
+        return refreshTokenRepository.findValidTokensByUserId(userId, LocalDateTime.now(clock)).stream()
+            .sorted(Comparator.comparing(RefreshToken::getCreatedAt).reversed())
+            .map(token -> new SessionResponse(token.getId(), token.getCreatedAt(), token.getExpiresAt(),
+                token.getTokenHash().equals(currentHash)))
+            .toList();
+    }
+
+    /**
+     * Revoke the user's oldest live sessions so that, with the one being created, at most the cap remain
+     */
+    private void enforceSessionCap(String userId) {
+        if (maxSessionsPerUser <= 0) {
+            return;
+        }
+        // Tokens still queued for insert must be counted too
+        refreshTokenWriteBehind.awaitPendingForUser(userId);
+        int evicted = refreshTokenRepository.revokeOldestBeyond(userId, maxSessionsPerUser - 1, LocalDateTime.now(clock));
+        if (evicted > 0) {
+            refreshTokenCache.evictUser(userId);
+            logger.info("Session cap of {} reached for user {} - revoked {} oldest sessions",
+                maxSessionsPerUser, userId, evicted);
+        }
     }
 
     /**
      * Store refresh token in database with hash
+     * {@code onStored} (optional) runs once the row is written: right away for a synchronous insert, or
+     * after the write-behind batch commits; never when that batch fails.
      */
-    private void storeRefreshToken(String userId, String tokenValue) {
+    private void storeRefreshToken(String userId, String tokenValue, String familyId, Consumer<RefreshToken> onStored) {
         String tokenHash = hashToken(tokenValue);
-        LocalDateTime expiresAt = LocalDateTime.now().plusDays(7); // Default 7 days
+        LocalDateTime expiresAt = LocalDateTime.now(clock).plus(jwtUtil.getRefreshTokenExpiry());
+
+        RefreshToken refreshToken = new RefreshToken(userId, tokenHash, expiresAt, familyId);
+        refreshToken.setCreatedAt(LocalDateTime.now(clock));
+        Runnable afterBatchCommit = onStored != null ? () -> onStored.accept(refreshToken) : null;
+        if (!refreshTokenWriteBehind.enqueue(refreshToken, afterBatchCommit)) {
+            // Write-behind off or its queue full: insert within this transaction
+            refreshTokenRepository.save(refreshToken);
+            if (onStored != null) {
+                onStored.accept(refreshToken);
+            }
+        }
+
+        logger.debug("Refresh token stored for user: {}", userId);
+    }
+
+    /**
+     * Near-cache loader: the stored token and its owner if the token is still valid, otherwise null (not cached)
+     */
+    private RefreshTokenCache.Entry loadValidRefreshToken(String tokenHash) {
+        return refreshTokenRepository.findValidTokenWithUser(tokenHash, LocalDateTime.now(clock))
+            .map(row -> new RefreshTokenCache.Entry(row, row.getExpiresAt(), false))
+            .orElse(null);
+    }
+
+    /**
+     * Read-your-writes for a token issued moments ago and still queued for insert
+     */
+    private RefreshTokenCache.Entry pendingEntry(RefreshToken queued) {
+        return userService.getAuthViewById(queued.getUserId())
+            .map(owner -> new RefreshTokenCache.Entry(owner, queued.getExpiresAt(), queued.getRevoked()))
+            .orElse(null);
+    }
 
-        // Parse refresh token expiry
-        if (refreshTokenExpiry.endsWith("d")) {
-            int days = Integer.parseInt(refreshTokenExpiry.substring(0, refreshTokenExpiry.length() - 1));
-            expiresAt = LocalDateTime.now().plusDays(days);
-        } else if (refreshTokenExpiry.endsWith("h")) {
-            int hours = Integer.parseInt(refreshTokenExpiry.substring(0, refreshTokenExpiry.length() - 1));
-            expiresAt = LocalDateTime.now().plusHours(hours);
+    /**
+     * Only active users get new access tokens; suspended or rejected ones are refused at refresh
+     */
+    private void requireActive(UserAuthView user, String userId) {
+        if (user == null) {
+            throw new InvalidTokenException();
+        }
+        if (!user.isActive()) {
+            logger.warn("Refresh refused for user {} with status {}", userId, user.getStatus());
+            throw new InvalidTokenException();
         }
+    }
 
-        RefreshToken refreshToken = new RefreshToken(userId, tokenHash, expiresAt);
-        refreshTokenRepository.save(refreshToken);
+    /**
+     * The user part of a refresh response: only the fields read for the token
+     */
+    private static UserResponse toUserResponse(UserAuthView user) {
+        UserResponse response = new UserResponse();
+        response.setId(user.getUserId());
+        response.setEmail(user.getEmail());
+        response.setRoles(user.getRoles());
+        response.setStatus(user.getStatus());
+        return response;
+    }
 
-        logger.debug("Refresh token stored for user: {}", userId);
+    /**
+     * A stored refresh token: random and opaque, or a signed JWT
+     * Both are only ever looked up by hash; the signature merely lets rotation skip reading the row first.
+     */
+    private String newRefreshToken(String userId, String familyId) {
+        return opaqueRefresh ? opaqueTokenGenerator.generate() : jwtUtil.generateRefreshToken(userId, familyId);
     }
 
     /**
      * Hash token for secure storage
      */
-    private String hashToken(String token) {
+    static String hashToken(String token) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
             byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
@@ -179,27 +477,9 @@ public class AuthService {
     }
 
     /**
-     * Convert duration string to seconds
+     * Access token lifetime reported to clients
      */
-    private long getExpiryInSeconds(String duration) {
-        if (duration.endsWith("m")) {
-            return Integer.parseInt(duration.substring(0, duration.length() - 1)) * 60L;
-        } else if (duration.endsWith("h")) {
-            return Integer.parseInt(duration.substring(0, duration.length() - 1)) * 3600L;
-        } else if (duration.endsWith("d")) {
-            return Integer.parseInt(duration.substring(0, duration.length() - 1)) * 86400L;
-        }
-        return 900; // Default 15 minutes
-    }
-
-    /**
-     * Cleanup expired tokens (called by scheduled job)
-     */
-    public void cleanupExpiredTokens() {
-        logger.info("Starting cleanup of expired tokens");
-
-        int deletedCount = refreshTokenRepository.deleteExpiredTokens(LocalDateTime.now());
-
-        logger.info("Cleaned up {} expired tokens", deletedCount);
+    private long getAccessTokenExpiryInSeconds() {
+        return jwtUtil.getAccessTokenExpiry().getSeconds();
     }
 }
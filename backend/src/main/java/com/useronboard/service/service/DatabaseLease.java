@@ -0,0 +1,96 @@
+package com.useronboard.service.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.UUID;
+
+/**
+ * Cluster-wide mutual exclusion for scheduled jobs through the scheduler_leases table
+ * A node owns a job while its row names this node and lease_until lies ahead; taking over an
+ * expired lease is one conditional UPDATE, so two nodes can never both succeed. A node that dies
+ * mid-run simply lets its lease run out.
+ */
+@Component
+public class DatabaseLease {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseLease.class);
+
+    private static final String ACQUIRE_SQL = "UPDATE scheduler_leases SET owner = ?, lease_until = ? "
+            + "WHERE name = ? AND (lease_until <= ? OR owner = ?)";
+    private static final String INSERT_SQL = "INSERT INTO scheduler_leases (name, owner, lease_until) VALUES (?, ?, ?)";
+    private static final String RELEASE_SQL = "UPDATE scheduler_leases SET lease_until = ? WHERE name = ? AND owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final String owner;
+
+    public DatabaseLease(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        String host = System.getenv("HOSTNAME");
+        this.owner = (host != null && !host.isBlank() ? host : "node") + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Take (or extend) the named lease for the given duration
+     *
+     * @return true when this node now holds it
+     */
+    public boolean tryAcquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Calendar utc = utc();
+        int updated = jdbcTemplate.update(ACQUIRE_SQL, ps -> {
+            ps.setString(1, owner);
+            ps.setTimestamp(2, Timestamp.valueOf(now.plus(duration)), utc);
+            ps.setString(3, name);
+            ps.setTimestamp(4, Timestamp.valueOf(now), utc);
+            ps.setString(5, owner);
+        });
+        if (updated == 1) {
+            return true;
+        }
+        try {
+            // First run anywhere: the row does not exist yet
+            jdbcTemplate.update(INSERT_SQL, ps -> {
+                ps.setString(1, name);
+                ps.setString(2, owner);
+                ps.setTimestamp(3, Timestamp.valueOf(now.plus(duration)), utc);
+            });
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Lease {} is held by another node", name);
+            return false;
+        }
+    }
+
+    /**
+     * Give the lease up early so another node need not wait for it to expire
+     */
+    public void release(String name) {
+        Calendar utc = utc();
+        jdbcTemplate.update(RELEASE_SQL, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now(clock)), utc);
+            ps.setString(2, name);
+            ps.setString(3, owner);
+        });
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    // Same binding as Hibernate with hibernate.jdbc.time_zone=UTC
+    private static Calendar utc() {
+        return Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    }
+}
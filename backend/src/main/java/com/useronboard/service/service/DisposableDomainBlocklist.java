@@ -0,0 +1,137 @@
+package com.useronboard.service.service;
+
+import com.useronboard.service.util.DomainSuffixSet;
+import com.useronboard.service.util.FileChangeWatcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Blocklist of disposable email domains checked on registration
+ * Loaded from a plain one-domain-per-line file into a DomainSuffixSet, so subdomains of a listed
+ * domain match too and a check is a handful of array reads. The file's directory is watched; a
+ * change is loaded on the watcher thread and published with one volatile write, so request threads
+ * never wait on a reload and always see either the old list or the new one.
+ */
+@Component
+public class DisposableDomainBlocklist {
+
+    private static final Logger logger = LoggerFactory.getLogger(DisposableDomainBlocklist.class);
+
+    private final Path file;
+    private volatile DomainSuffixSet domains = DomainSuffixSet.empty();
+    private FileChangeWatcher watcher;
+
+    private final Counter hits;
+    private final Counter reloads;
+    private final Counter reloadFailures;
+
+    public DisposableDomainBlocklist(@Value("${security.disposable-domains.file:}") String file,
+                                     @Value("${security.disposable-domains.watch.enabled:true}") boolean watchEnabled,
+                                     MeterRegistry meterRegistry) {
+        this.file = file.isBlank() ? null : Path.of(file).toAbsolutePath();
+
+        this.hits = Counter.builder("auth.registration.disposable.blocked")
+                .description("Registrations refused because the email domain is on the disposable-domain blocklist")
+                .register(meterRegistry);
+        this.reloads = Counter.builder("auth.registration.disposable.reloads")
+                .description("Disposable-domain blocklist loads")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.reloadFailures = Counter.builder("auth.registration.disposable.reloads")
+                .description("Disposable-domain blocklist loads")
+                .tag("result", "failure")
+                .register(meterRegistry);
+        Gauge.builder("auth.registration.disposable.domains", this, b -> b.domains.size())
+                .description("Domains on the current disposable-domain blocklist")
+                .register(meterRegistry);
+
+        if (this.file != null) {
+            try {
+                reload();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot load disposable-domain blocklist " + this.file, e);
+            }
+            if (watchEnabled) {
+                startWatcher();
+            }
+        }
+    }
+
+    /**
+     * true when the address's domain, or a parent domain of it, is on the blocklist
+     */
+    public boolean isDisposable(String email) {
+        if (email == null || !domains.matches(email)) {
+            return false;
+        }
+        hits.increment();
+        return true;
+    }
+
+    public int size() {
+        return domains.size();
+    }
+
+    /**
+     * Load the file into a new set and swap it in
+     */
+    public synchronized void reload() throws IOException {
+        long started = System.nanoTime();
+        DomainSuffixSet loaded;
+        try {
+            loaded = DomainSuffixSet.load(file);
+        } catch (IOException e) {
+            reloadFailures.increment();
+            throw e;
+        }
+        if (loaded.size() == 0 && domains.size() > 0) {
+            // Most likely caught mid-write; the write completing fires another event
+            reloadFailures.increment();
+            logger.warn("Disposable-domain blocklist {} is empty, keeping the current {} domains", file, domains.size());
+            return;
+        }
+        domains = loaded;
+        reloads.increment();
+        logger.info("Disposable-domain blocklist loaded from {}: {} domains in {} ms",
+                file, loaded.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void startWatcher() {
+        try {
+            watcher = new FileChangeWatcher("disposable-domains", List.of(file.getParent()),
+                    Duration.ofMillis(500), this::reloadQuietly);
+            watcher.start();
+        } catch (IOException e) {
+            logger.warn("Disposable-domain blocklist hot reload disabled - cannot watch {}: {}",
+                    file.getParent(), e.getMessage());
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (IOException e) {
+            logger.error("Disposable-domain blocklist reload failed, keeping the current list: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+}
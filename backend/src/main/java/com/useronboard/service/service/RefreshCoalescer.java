@@ -0,0 +1,136 @@
+package com.useronboard.service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.useronboard.service.dto.AuthResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Single-flight refresh per token hash, for clients with several tabs refreshing at once
+ * The first caller runs AuthService.refreshToken (in its own transaction, since this sits in front of
+ * the service proxy); concurrent callers with the same token wait for that result, and callers within
+ * the reuse window after it committed get it too. With rotation this also keeps the other tabs from
+ * presenting the just-consumed token, which would otherwise look like reuse and revoke the family.
+ * Neither map is size-bounded, since an evicted entry would cause exactly that: in-flight refreshes
+ * live in a plain map until they finish (bounded by concurrency), and completed ones expire after the
+ * reuse window (bounded by the refresh rate). Failures are shared with the waiters but not kept.
+ */
+@Component
+public class RefreshCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshCoalescer.class);
+
+    private final AuthService authService;
+    private final boolean enabled;
+    private final ConcurrentMap<String, CompletableFuture<AuthResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, AuthResponse> recent;
+
+    private final Counter computed;
+    private final Counter coalesced;
+
+    public RefreshCoalescer(AuthService authService,
+                            @Value("${security.refresh-coalescing.enabled:true}") boolean enabled,
+                            @Value("${security.refresh-coalescing.reuse-window:1s}") Duration reuseWindow,
+                            MeterRegistry meterRegistry) {
+        this.authService = authService;
+        this.enabled = enabled;
+        this.recent = Caffeine.newBuilder()
+                .expireAfterWrite(reuseWindow)
+                .build();
+
+        this.computed = Counter.builder("auth.refresh.requests")
+                .tag("result", "computed")
+                .description("Refreshes that ran the refresh path")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("auth.refresh.requests")
+                .tag("result", "coalesced")
+                .description("Refreshes answered with a concurrent or just-minted result for the same token")
+                .register(meterRegistry);
+        Gauge.builder("auth.refresh.coalescing.ratio", this, RefreshCoalescer::coalescingRatio)
+                .description("Share of refreshes that skipped the lookup and signing")
+                .register(meterRegistry);
+
+        logger.debug("Refresh coalescing {} (reuseWindow={})", enabled ? "enabled" : "disabled", reuseWindow);
+    }
+
+    /**
+     * Refresh, sharing the work with any concurrent or just-completed refresh of the same token
+     */
+    public AuthResponse refresh(String refreshToken) {
+        if (!enabled) {
+            computed.increment();
+            return authService.refreshToken(refreshToken);
+        }
+
+        String tokenHash = AuthService.hashToken(refreshToken);
+        AuthResponse minted = recent.getIfPresent(tokenHash);
+        if (minted != null) {
+            coalesced.increment();
+            return minted;
+        }
+        CompletableFuture<AuthResponse> mine = new CompletableFuture<>();
+        CompletableFuture<AuthResponse> existing = inFlight.putIfAbsent(tokenHash, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        try {
+            // The previous owner publishes its result before leaving the in-flight map, so look again
+            minted = recent.getIfPresent(tokenHash);
+            if (minted != null) {
+                coalesced.increment();
+                mine.complete(minted);
+                return minted;
+            }
+            computed.increment();
+            AuthResponse response = authService.refreshToken(refreshToken);
+            mine.complete(response);
+            // The reuse window starts now rather than when the refresh started
+            recent.put(tokenHash, response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(tokenHash, mine);
+        }
+    }
+
+    /**
+     * Drop a shared result, e.g. when the token is logged out
+     */
+    public void evict(String refreshToken) {
+        if (enabled) {
+            recent.invalidate(AuthService.hashToken(refreshToken));
+        }
+    }
+
+    private double coalescingRatio() {
+        double total = computed.count() + coalesced.count();
+        return total == 0 ? 0 : coalesced.count() / total;
+    }
+
+    private static AuthResponse await(CompletableFuture<AuthResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
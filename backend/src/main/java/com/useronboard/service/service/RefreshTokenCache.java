@@ -0,0 +1,252 @@
+package com.useronboard.service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.useronboard.service.entity.UserStatus;
+import com.useronboard.service.messaging.RefreshTokenEvictionPublisher;
+import com.useronboard.service.repository.UserAuthView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Near-cache of refresh tokens keyed by token hash
+ * Serves AuthService.refreshToken from memory; filled on a miss and when a token is stored.
+ * Each entry also carries the owner's email, roles and status, so a hit needs no database
+ * round trip; status changes evict the user's entries like a revocation does.
+ * Revocations evict locally and on every other node through the eviction fanout; a lost
+ * broadcast is bounded by the entry TTL. Writes are applied after the surrounding
+ * transaction commits so the cache never holds state the database rolled back.
+ */
+@Component
+public class RefreshTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenCache.class);
+
+    private final boolean enabled;
+    private final Clock clock;
+    private final Cache<String, Entry> cache;
+    private final RefreshTokenEvictionPublisher evictionPublisher;
+
+    public RefreshTokenCache(@Value("${security.refresh-cache.enabled:true}") boolean enabled,
+                             @Value("${security.refresh-cache.maximum-size:100000}") long maximumSize,
+                             @Value("${security.refresh-cache.ttl:10m}") Duration ttl,
+                             Clock clock,
+                             RefreshTokenEvictionPublisher evictionPublisher,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.clock = clock;
+        this.evictionPublisher = evictionPublisher;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new CappedAtTokenExpiry(ttl, clock))
+                .recordStats()
+                .build();
+
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "refresh.tokens");
+            logger.info("Refresh token near-cache enabled (maximumSize={}, ttl={})", maximumSize, ttl);
+        }
+    }
+
+    /**
+     * Cached entry for the hash, or the loader's result (cached unless null)
+     */
+    public Entry get(String tokenHash, Function<String, Entry> loader) {
+        if (!enabled) {
+            return loader.apply(tokenHash);
+        }
+        return cache.get(tokenHash, loader);
+    }
+
+    /**
+     * Cache a newly stored token once its insert commits
+     */
+    public void put(String tokenHash, Entry entry) {
+        if (enabled) {
+            afterCommit(() -> cache.put(tokenHash, entry));
+        }
+    }
+
+    /**
+     * Evict one token here and on every other node
+     */
+    public void evict(String tokenHash) {
+        if (!enabled) {
+            return;
+        }
+        cache.invalidate(tokenHash);
+        afterCommit(() -> {
+            // A concurrent miss may have reloaded the pre-revocation row before commit
+            cache.invalidate(tokenHash);
+            evictionPublisher.publishTokenEviction(tokenHash);
+        });
+    }
+
+    /**
+     * Evict every token of a user here and on every other node (sessions revoked or owner changed)
+     */
+    public void evictUser(String userId) {
+        if (!enabled) {
+            return;
+        }
+        evictUserLocally(userId);
+        afterCommit(() -> {
+            evictUserLocally(userId);
+            evictionPublisher.publishUserEviction(userId);
+        });
+    }
+
+    /**
+     * Apply an eviction received from another node
+     */
+    public void evictLocally(String tokenHash) {
+        cache.invalidate(tokenHash);
+    }
+
+    public void evictUserLocally(String userId) {
+        cache.asMap().values().removeIf(entry -> userId.equals(entry.getUserId()));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * What the refresh path needs to know about a stored token and its owner
+     */
+    public static final class Entry implements UserAuthView {
+
+        private final String userId;
+        private final String email;
+        private final String roles;
+        private final UserStatus status;
+        private final LocalDateTime expiresAt;
+        private final boolean revoked;
+
+        public Entry(String userId, String email, String roles, UserStatus status, LocalDateTime expiresAt, boolean revoked) {
+            this.userId = userId;
+            this.email = email;
+            this.roles = roles;
+            this.status = status;
+            this.expiresAt = expiresAt;
+            this.revoked = revoked;
+        }
+
+        public Entry(UserAuthView owner, LocalDateTime expiresAt, boolean revoked) {
+            this(owner.getUserId(), owner.getEmail(), owner.getRoles(), owner.getStatus(), expiresAt, revoked);
+        }
+
+        @Override
+        public String getUserId() {
+            return userId;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+
+        @Override
+        public String getRoles() {
+            return roles;
+        }
+
+        @Override
+        public UserStatus getStatus() {
+            return status;
+        }
+
+        public LocalDateTime getExpiresAt() {
+            return expiresAt;
+        }
+
+        public boolean isRevoked() {
+            return revoked;
+        }
+
+        public boolean isValid(LocalDateTime now) {
+            return !revoked && expiresAt.isAfter(now);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Entry that = (Entry) o;
+            return revoked == that.revoked &&
+                   Objects.equals(userId, that.userId) &&
+                   Objects.equals(email, that.email) &&
+                   Objects.equals(roles, that.roles) &&
+                   status == that.status &&
+                   Objects.equals(expiresAt, that.expiresAt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, email, roles, status, expiresAt, revoked);
+        }
+    }
+
+    /**
+     * Per-entry lifetime: the configured TTL, but never past the token's expiry
+     */
+    private static final class CappedAtTokenExpiry implements Expiry<String, Entry> {
+
+        private final Duration ttl;
+        private final Clock clock;
+
+        CappedAtTokenExpiry(Duration ttl, Clock clock) {
+            this.ttl = ttl;
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Entry value, long currentTime) {
+            Duration untilExpiry = Duration.between(LocalDateTime.now(clock), value.getExpiresAt());
+            if (untilExpiry.compareTo(ttl) >= 0) {
+                return ttl.toNanos();
+            }
+            return Math.max(0L, untilExpiry.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
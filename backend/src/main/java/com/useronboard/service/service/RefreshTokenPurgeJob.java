@@ -0,0 +1,185 @@
+package com.useronboard.service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduled purge of expired refresh tokens, on one node at a time
+ * Revoked rows are kept until they expire too: rotation finds a replayed token's family through
+ * its consumed row, and deleting that row earlier would turn reuse into a plain "invalid token".
+ * Rows are deleted in bounded chunks: a chunk's ids are read with a row limit and then deleted by
+ * primary key, so each DELETE locks at most chunk-size rows and commits on its own, with a pause
+ * between chunks for concurrent logins. A database lease keeps other nodes out and is extended as
+ * the run proceeds; losing it stops the run.
+ */
+@Component
+public class RefreshTokenPurgeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenPurgeJob.class);
+
+    static final String LEASE_NAME = "refresh-token-purge";
+
+    private static final String SELECT_EXPIRED_SQL = "SELECT id FROM refresh_tokens WHERE expires_at < ?";
+
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Duration pause;
+    private final Duration leaseDuration;
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseLease lease;
+    private final Clock clock;
+
+    private final Counter expiredPurged;
+    private final Timer chunkTimer;
+    private volatile boolean running = true;
+
+    public RefreshTokenPurgeJob(@Value("${security.token-purge.enabled:true}") boolean enabled,
+                                @Value("${security.token-purge.chunk-size:500}") int chunkSize,
+                                @Value("${security.token-purge.pause:200ms}") Duration pause,
+                                @Value("${security.token-purge.lease:10m}") Duration leaseDuration,
+                                JdbcTemplate jdbcTemplate,
+                                DatabaseLease lease,
+                                Clock clock,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        // Ids are bound as an IN list: Oracle allows 1000 expressions, MSSQL 2100 parameters
+        this.chunkSize = Math.max(1, Math.min(1000, chunkSize));
+        this.pause = pause;
+        this.leaseDuration = leaseDuration;
+        this.jdbcTemplate = jdbcTemplate;
+        this.lease = lease;
+        this.clock = clock;
+
+        this.expiredPurged = Counter.builder("auth.token.purge.rows")
+                .description("Refresh token rows deleted by the purge job")
+                .tag("kind", "expired")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("auth.token.purge.chunk")
+                .description("Time to select and delete one chunk of refresh tokens")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run one purge if this node can take the lease
+     */
+    @Scheduled(fixedDelayString = "${security.token-purge.interval:1h}",
+               initialDelayString = "${security.token-purge.initial-delay:5m}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!lease.tryAcquire(LEASE_NAME, leaseDuration)) {
+                logger.debug("Refresh token purge skipped - running on another node");
+                return;
+            }
+        } catch (RuntimeException e) {
+            logger.error("Refresh token purge skipped - lease unavailable: {}", e.getMessage());
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            LocalDateTime now = LocalDateTime.now(clock);
+            long expired = purgeChunks(SELECT_EXPIRED_SQL, new Object[]{now}, expiredPurged);
+            logger.info("Refresh token purge removed {} expired tokens in {} ms",
+                    expired, (System.nanoTime() - started) / 1_000_000);
+        } catch (LeaseLostException e) {
+            logger.warn("Refresh token purge stopped - its lease was taken over by another node");
+        } catch (RuntimeException e) {
+            logger.error("Refresh token purge failed: {}", e.getMessage());
+        } finally {
+            try {
+                lease.release(LEASE_NAME);
+            } catch (RuntimeException e) {
+                logger.warn("Could not release purge lease, it expires in {}: {}", leaseDuration, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+
+    private long purgeChunks(String selectSql, Object[] args, Counter purged) {
+        long total = 0;
+        long leaseRenewedAt = System.nanoTime();
+        while (running) {
+            long chunkStarted = System.nanoTime();
+            List<String> ids = selectChunk(selectSql, args);
+            int deleted = ids.isEmpty() ? 0 : deleteByIds(ids);
+            chunkTimer.record(System.nanoTime() - chunkStarted, TimeUnit.NANOSECONDS);
+            purged.increment(deleted);
+            total += deleted;
+            if (ids.size() < chunkSize) {
+                break;
+            }
+
+            // Keep the lease well ahead of a long run; someone else owning it means stop
+            if (System.nanoTime() - leaseRenewedAt > leaseDuration.toNanos() / 2) {
+                if (!lease.tryAcquire(LEASE_NAME, leaseDuration)) {
+                    throw new LeaseLostException();
+                }
+                leaseRenewedAt = System.nanoTime();
+            }
+            if (!sleep(pause)) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private List<String> selectChunk(String selectSql, Object[] args) {
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        return jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(selectSql);
+            // A driver-side row limit works the same on MSSQL, Oracle and H2
+            ps.setMaxRows(chunkSize);
+            for (int i = 0; i < args.length; i++) {
+                ps.setTimestamp(i + 1, Timestamp.valueOf((LocalDateTime) args[i]), utc);
+            }
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1));
+    }
+
+    private int deleteByIds(List<String> ids) {
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.update("DELETE FROM refresh_tokens WHERE id IN (" + placeholders + ")", ids.toArray());
+    }
+
+    private static boolean sleep(Duration pause) {
+        if (pause.isZero() || pause.isNegative()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static final class LeaseLostException extends RuntimeException {
+    }
+}
@@ -0,0 +1,311 @@
+package com.useronboard.service.service;
+
+import com.useronboard.service.entity.RefreshToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Optional write-behind for refresh-token inserts
+ * Logins hand new tokens to a bounded queue; one writer thread group-commits them as JDBC batch
+ * inserts every flush interval or batch-size rows, whichever comes first. Until a token's batch
+ * commits it is served from the pending overlay, so an immediate refresh still finds it, and
+ * anything that must act on the stored row (rotation, logout) waits for it first. A full queue
+ * hands the insert back to the caller. The queue is drained on shutdown. Callers that keep their
+ * own copy of a token (the near-cache) pass an action that runs only once its batch has committed.
+ */
+@Component
+public class RefreshTokenWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenWriteBehind.class);
+
+    private static final String INSERT_SQL = "INSERT INTO refresh_tokens "
+            + "(id, user_id, token_hash, expires_at, created_at, revoked, family_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration awaitTimeout;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<Pending> queue;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter fallbacks;
+    private final Counter failures;
+
+    public RefreshTokenWriteBehind(@Value("${security.refresh-write-behind.enabled:false}") boolean enabled,
+                                   @Value("${security.refresh-write-behind.batch-size:200}") int batchSize,
+                                   @Value("${security.refresh-write-behind.flush-interval:5ms}") Duration flushInterval,
+                                   @Value("${security.refresh-write-behind.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${security.refresh-write-behind.await-timeout:2s}") Duration awaitTimeout,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.awaitTimeout = awaitTimeout;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        Gauge.builder("auth.refresh.write.behind.queue.depth", queue, BlockingQueue::size)
+                .description("Refresh tokens waiting to be batch-inserted")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("auth.refresh.write.behind.flush")
+                .description("Time to batch-insert and commit one group of refresh tokens")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("auth.refresh.write.behind.batch.size")
+                .description("Refresh tokens per group commit")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("auth.refresh.write.behind.fallback")
+                .description("Refresh tokens inserted synchronously because the queue was full")
+                .register(meterRegistry);
+        this.failures = Counter.builder("auth.refresh.write.behind.failed")
+                .description("Refresh tokens that could not be inserted")
+                .register(meterRegistry);
+
+        if (enabled) {
+            this.writer = new Thread(this::run, "refresh-token-writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+            logger.info("Refresh token write-behind enabled (batchSize={}, flushInterval={}, queueCapacity={})",
+                    batchSize, flushInterval, queueCapacity);
+        } else {
+            this.writer = null;
+        }
+    }
+
+    /**
+     * Queue a new token for insert
+     *
+     * @return false when write-behind is off or the queue is full; the caller must insert it itself
+     */
+    public boolean enqueue(RefreshToken token) {
+        return enqueue(token, null);
+    }
+
+    /**
+     * Queue a new token for insert and run {@code onCommitted} on the writer thread once its batch
+     * has committed; it never runs if the insert fails
+     *
+     * @return false when write-behind is off or the queue is full; the caller must insert it itself
+     */
+    public boolean enqueue(RefreshToken token, Runnable onCommitted) {
+        if (!enabled || !running) {
+            return false;
+        }
+        Pending entry = new Pending(token, onCommitted);
+        pending.put(token.getTokenHash(), entry);
+        if (!queue.offer(entry)) {
+            pending.remove(token.getTokenHash(), entry);
+            fallbacks.increment();
+            return false;
+        }
+        if (!running && queue.remove(entry)) {
+            // Raced with shutdown after the final drain
+            pending.remove(token.getTokenHash(), entry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * A queued token that has not been committed yet, or null
+     */
+    public RefreshToken findPending(String tokenHash) {
+        if (!enabled) {
+            return null;
+        }
+        Pending entry = pending.get(tokenHash);
+        return entry != null ? entry.token : null;
+    }
+
+    /**
+     * Block until the token's row exists, if it is still queued
+     */
+    public void awaitPending(String tokenHash) {
+        if (enabled) {
+            Pending entry = pending.get(tokenHash);
+            if (entry != null) {
+                await(entry.committed);
+            }
+        }
+    }
+
+    /**
+     * Block until every queued token of the user has been inserted
+     */
+    public void awaitPendingForUser(String userId) {
+        if (enabled && !pending.isEmpty()) {
+            CompletableFuture<?>[] committed = pending.values().stream()
+                    .filter(entry -> userId.equals(entry.token.getUserId()))
+                    .map(entry -> entry.committed)
+                    .toArray(CompletableFuture[]::new);
+            if (committed.length > 0) {
+                await(CompletableFuture.allOf(committed));
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        // Not interrupted: a JDBC call in flight should finish; the writer notices within one flush interval
+        running = false;
+        writer.join(awaitTimeout.toMillis());
+        // Anything the writer did not get to before stopping
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining);
+        }
+        logger.info("Refresh token write-behind stopped, queue drained");
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Gather for up to one flush interval or until the batch is full
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Nothing interrupts the writer on purpose; write what was gathered and keep going until stopped
+                logger.debug("Refresh token writer interrupted");
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        long started = System.nanoTime();
+        // Same binding as Hibernate with hibernate.jdbc.time_zone=UTC, so rows match JPA-inserted ones
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(),
+                    (ps, entry) -> {
+                        RefreshToken token = entry.token;
+                        ps.setString(1, token.getId());
+                        ps.setString(2, token.getUserId());
+                        ps.setString(3, token.getTokenHash());
+                        ps.setTimestamp(4, Timestamp.valueOf(token.getExpiresAt()), utc);
+                        ps.setTimestamp(5, Timestamp.valueOf(token.getCreatedAt()), utc);
+                        ps.setBoolean(6, Boolean.TRUE.equals(token.getRevoked()));
+                        ps.setString(7, token.getFamilyId());
+                    }));
+            complete(batch, null);
+        } catch (RuntimeException e) {
+            failures.increment(batch.size());
+            logger.error("Failed to insert {} refresh tokens; those sessions must log in again: {}", batch.size(), e.getMessage());
+            complete(batch, e);
+        } finally {
+            flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+        }
+    }
+
+    private void complete(List<Pending> batch, RuntimeException failure) {
+        for (Pending entry : batch) {
+            if (failure == null) {
+                // Before waiters wake: a logout waiting on this token must evict after the action, not before
+                runCommitted(entry);
+            }
+            pending.remove(entry.token.getTokenHash(), entry);
+            if (failure == null) {
+                entry.committed.complete(null);
+            } else {
+                entry.committed.completeExceptionally(failure);
+            }
+        }
+    }
+
+    private static void runCommitted(Pending entry) {
+        if (entry.onCommitted == null) {
+            return;
+        }
+        try {
+            entry.onCommitted.run();
+        } catch (RuntimeException e) {
+            // The row is stored; a missed follow-up must not fail the rest of the batch
+            logger.warn("Post-commit action for a refresh token failed: {}", e.getMessage());
+        }
+    }
+
+    private void await(CompletableFuture<?> committed) {
+        try {
+            committed.get(awaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            logger.warn("Timed out after {} waiting for a queued refresh token insert", awaitTimeout);
+        } catch (Exception e) {
+            // The insert failed; the caller then sees the token as missing
+            logger.debug("Queued refresh token insert failed: {}", e.getMessage());
+        }
+    }
+
+    private static final class Pending {
+
+        private final RefreshToken token;
+        private final Runnable onCommitted;
+        private final CompletableFuture<Void> committed = new CompletableFuture<>();
+
+        Pending(RefreshToken token, Runnable onCommitted) {
+            this.token = token;
+            this.onCommitted = onCommitted;
+        }
+    }
+}
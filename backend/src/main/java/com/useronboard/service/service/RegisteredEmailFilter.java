@@ -0,0 +1,182 @@
+package com.useronboard.service.service;
+
+import com.useronboard.service.repository.UserRepository;
+import com.useronboard.service.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of registered (normalized) emails
+ * A definite "not registered" answer lets registration skip the existence query and lets
+ * login for an unknown email skip the user lookup. Built by streaming the users table once
+ * the application is ready, kept current on registration (locally and via user.registered
+ * broadcasts), and rebuilt periodically so it resizes as the table grows. Until the first
+ * build finishes every email is reported as possibly registered.
+ */
+@Component
+public class RegisteredEmailFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegisteredEmailFilter.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final long minimumExpectedInsertions;
+    private final double growthFactor;
+
+    private final Object lock = new Object();
+    private volatile BloomFilter filter;
+    private List<String> addedDuringRebuild;
+    private final AtomicLong elements = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final Counter negatives;
+    private final Counter positives;
+
+    public RegisteredEmailFilter(UserRepository userRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${security.email-filter.enabled:true}") boolean enabled,
+                                 @Value("${security.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                 @Value("${security.email-filter.expected-insertions:100000}") long minimumExpectedInsertions,
+                                 @Value("${security.email-filter.growth-factor:2.0}") double growthFactor,
+                                 MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minimumExpectedInsertions = minimumExpectedInsertions;
+        this.growthFactor = growthFactor;
+
+        this.negatives = Counter.builder("auth.email.filter.lookups")
+                .description("Email filter answers; definitely_absent lookups skipped the database")
+                .tag("result", "definitely_absent")
+                .register(meterRegistry);
+        this.positives = Counter.builder("auth.email.filter.lookups")
+                .description("Email filter answers; definitely_absent lookups skipped the database")
+                .tag("result", "maybe_present")
+                .register(meterRegistry);
+        Gauge.builder("auth.email.filter.elements", elements, AtomicLong::get)
+                .description("Emails added to the current filter")
+                .register(meterRegistry);
+        Gauge.builder("auth.email.filter.bytes", this, f -> f.filter != null ? f.filter.bitSize() / 8.0 : 0)
+                .description("Memory used by the filter bit array")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("auth.email.filter.false.positive.rate.configured", () -> falsePositiveRate)
+                .description("Target false-positive rate the filter is sized for")
+                .register(meterRegistry);
+        Gauge.builder("auth.email.filter.false.positive.rate.estimated", this,
+                        f -> f.filter != null ? f.filter.estimatedFalsePositiveRate() : 1.0)
+                .description("False-positive rate estimated from the current bit fill")
+                .register(meterRegistry);
+    }
+
+    /**
+     * false when the email is definitely not registered; true when it may be (or the filter is not built)
+     */
+    public boolean mightBeRegistered(String email) {
+        BloomFilter current = filter;
+        if (!enabled || current == null || email == null) {
+            return true;
+        }
+        boolean maybe = current.mightContain(normalize(email));
+        (maybe ? positives : negatives).increment();
+        return maybe;
+    }
+
+    /**
+     * Record a newly registered email
+     */
+    public void add(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        String normalized = normalize(email);
+        synchronized (lock) {
+            if (filter != null) {
+                filter.add(normalized);
+                elements.incrementAndGet();
+            }
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(normalized);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild from the users table, sized for the current row count, and swap it in
+     */
+    @Scheduled(fixedDelayString = "${security.email-filter.rebuild-interval:1h}",
+               initialDelayString = "${security.email-filter.rebuild-interval:1h}")
+    public void rebuild() {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.nanoTime();
+        synchronized (lock) {
+            addedDuringRebuild = new ArrayList<>();
+        }
+        try {
+            AtomicLong streamed = new AtomicLong();
+            BloomFilter rebuilt = readOnlyTransaction.execute(status -> {
+                long users = userRepository.count();
+                long expected = Math.max(minimumExpectedInsertions, (long) (users * growthFactor));
+                BloomFilter next = BloomFilter.create(expected, falsePositiveRate);
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    emails.forEach(email -> {
+                        next.add(normalize(email));
+                        streamed.incrementAndGet();
+                    });
+                }
+                return next;
+            });
+
+            long count;
+            synchronized (lock) {
+                // Registrations that raced with the table scan
+                addedDuringRebuild.forEach(rebuilt::add);
+                count = streamed.get() + addedDuringRebuild.size();
+                filter = rebuilt;
+                addedDuringRebuild = null;
+                elements.set(count);
+            }
+            logger.info("Registered-email filter built: {} emails, {} KiB, {} hashes in {} ms",
+                    count, rebuilt.bitSize() / 8 / 1024, rebuilt.hashCount(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                addedDuringRebuild = null;
+            }
+            logger.error("Registered-email filter rebuild failed, keeping the previous filter: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,86 @@
+package com.useronboard.service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.useronboard.service.messaging.RefreshTokenEvictionPublisher;
+import com.useronboard.service.repository.UserSessionView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Per-user session epoch (with the fields an access token needs) for stateless refresh
+ * A refresh is valid while its token's epoch equals the cached one, so a hit costs no database
+ * round trip. Logout of all sessions bumps the epoch and evicts the user here and, through the
+ * refresh-token eviction fanout, on every other node; a lost broadcast is bounded by the TTL.
+ */
+@Component
+public class SessionEpochCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionEpochCache.class);
+
+    private final Cache<String, UserSessionView> cache;
+    private final RefreshTokenEvictionPublisher evictionPublisher;
+
+    public SessionEpochCache(@Value("${security.session-epoch-cache.maximum-size:100000}") long maximumSize,
+                             @Value("${security.session-epoch-cache.ttl:1m}") Duration ttl,
+                             RefreshTokenEvictionPublisher evictionPublisher,
+                             MeterRegistry meterRegistry) {
+        this.evictionPublisher = evictionPublisher;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "session.epochs");
+        logger.debug("Session epoch cache created (maximumSize={}, ttl={})", maximumSize, ttl);
+    }
+
+    /**
+     * Cached session state of the user, or the loader's result (cached unless null)
+     */
+    public UserSessionView get(String userId, Function<String, UserSessionView> loader) {
+        return cache.get(userId, loader);
+    }
+
+    /**
+     * Forget the user's epoch here and on every other node once the bump commits
+     */
+    public void evictUser(String userId) {
+        cache.invalidate(userId);
+        afterCommit(() -> {
+            // A concurrent miss may have reloaded the old epoch before commit
+            cache.invalidate(userId);
+            evictionPublisher.publishUserEviction(userId);
+        });
+    }
+
+    /**
+     * Apply a user eviction received from another node
+     */
+    public void evictUserLocally(String userId) {
+        cache.invalidate(userId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -5,20 +5,40 @@ import com.useronboard.service.dto.UserResponse;
 import com.useronboard.service.entity.User;
 import com.useronboard.service.entity.UserAuditLog;
 import com.useronboard.service.entity.UserStatus;
+import com.useronboard.service.exception.AccountNotActiveException;
+import com.useronboard.service.exception.BreachedPasswordException;
+import com.useronboard.service.exception.DisposableEmailDomainException;
+import com.useronboard.service.exception.EmailAlreadyRegisteredException;
+import com.useronboard.service.exception.InvalidUserStateException;
+import com.useronboard.service.exception.UserNotFoundException;
 import com.useronboard.service.messaging.UserEventPublisher;
 import com.useronboard.service.repository.UserAuditLogRepository;
+import com.useronboard.service.repository.UserAuthView;
 import com.useronboard.service.repository.UserRepository;
+import com.useronboard.service.repository.UserSessionView;
+import com.useronboard.service.security.BreachedPasswordFilter;
+import com.useronboard.service.security.PasswordHashingExecutor;
+import com.useronboard.service.util.RateLimitedLogger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -30,37 +50,77 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+    // Failed logins are attacker-driven; a credential-stuffing run must not turn into a log flood
+    private static final RateLimitedLogger authFailureLog = new RateLimitedLogger(logger, 10, Duration.ofSeconds(1));
 
     private final UserRepository userRepository;
     private final UserAuditLogRepository auditLogRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final UserEventPublisher eventPublisher;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final BreachedPasswordFilter breachedPasswordFilter;
+    private final DisposableDomainBlocklist disposableDomainBlocklist;
+    private final RefreshTokenCache refreshTokenCache;
+    private final TransactionTemplate upgradeTransaction;
 
     public UserService(UserRepository userRepository,
                       UserAuditLogRepository auditLogRepository,
                       PasswordEncoder passwordEncoder,
-                      UserEventPublisher eventPublisher) {
+                      PasswordHashingExecutor passwordHashingExecutor,
+                      UserEventPublisher eventPublisher,
+                      RegisteredEmailFilter registeredEmailFilter,
+                      BreachedPasswordFilter breachedPasswordFilter,
+                      DisposableDomainBlocklist disposableDomainBlocklist,
+                      RefreshTokenCache refreshTokenCache,
+                      PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.auditLogRepository = auditLogRepository;
         this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
         this.eventPublisher = eventPublisher;
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.breachedPasswordFilter = breachedPasswordFilter;
+        this.disposableDomainBlocklist = disposableDomainBlocklist;
+        this.refreshTokenCache = refreshTokenCache;
+        this.upgradeTransaction = new TransactionTemplate(transactionManager);
+        this.upgradeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     /**
-     * Register a new user with PENDING status
+     * Registration checks that need no password hash: disposable domain, breached password, existing email
+     * Runs before the password is hashed, so a refused request never costs a hash.
      */
-    public UserResponse registerUser(UserRegistrationRequest request) {
-        logger.info("Registering new user: {}", request.getEmail());
+    @Transactional(readOnly = true)
+    public void checkRegistration(UserRegistrationRequest request) {
+        // In-memory screens, before any database work
+        if (disposableDomainBlocklist.isDisposable(request.getEmail())) {
+            logger.info("Registration refused for {}: disposable email domain", request.getEmail());
+            throw new DisposableEmailDomainException();
+        }
+        if (breachedPasswordFilter.isBreached(request.getPassword())) {
+            logger.info("Registration refused for {}: password is in the breached-password corpus", request.getEmail());
+            throw new BreachedPasswordException();
+        }
 
-        // Check if user already exists
-        if (userRepository.existsByEmailIgnoreCase(request.getEmail())) {
-            throw new IllegalArgumentException("User with email " + request.getEmail() + " already exists");
+        // Check if user already exists; a definite filter miss skips the query (the unique index still guards)
+        if (registeredEmailFilter.mightBeRegistered(request.getEmail())
+                && userRepository.existsByEmailIgnoreCase(request.getEmail())) {
+            throw new EmailAlreadyRegisteredException(request.getEmail());
         }
+    }
+
+    /**
+     * Register a new user with PENDING status
+     * The password arrives already hashed on the hashing pool, after checkRegistration passed.
+     */
+    public UserResponse registerUser(UserRegistrationRequest request, String passwordHash) {
+        logger.info("Registering new user: {}", request.getEmail());
 
         // Create new user entity
         User user = new User();
         user.setEmail(request.getEmail().toLowerCase());
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHash);
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         user.setPhone(request.getPhone());
@@ -69,6 +129,9 @@ public class UserService {
 
         // Save user
         User savedUser = userRepository.save(user);
+        // Only once the row is visible: a rebuild scanning before the commit would otherwise miss it,
+        // and one that started after add() would not record it as added during the rebuild
+        afterCommit(() -> registeredEmailFilter.add(savedUser.getEmail()));
 
         // Create audit log
         UserAuditLog auditLog = UserAuditLog.userCreated(
@@ -86,34 +149,77 @@ public class UserService {
     }
 
     /**
-     * Authenticate user login
+     * The account a login is for, before its password is verified on the hashing pool
      */
-    public Optional<User> authenticateUser(String email, String password) {
+    @Transactional(readOnly = true)
+    public Optional<User> findLoginCandidate(String email) {
         logger.debug("Authenticating user: {}", email);
 
+        if (!registeredEmailFilter.mightBeRegistered(email)) {
+            authFailureLog.warn("User authentication failed - user not found: {}", email);
+            return Optional.empty();
+        }
+
         Optional<User> userOpt = userRepository.findByEmailIgnoreCase(email);
+        if (userOpt.isEmpty()) {
+            authFailureLog.warn("User authentication failed - user not found: {}", email);
+        }
+        return userOpt;
+    }
 
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-
-            // Check password
-            if (passwordEncoder.matches(password, user.getPasswordHash())) {
-                // Check if user is active
-                if (user.isActive()) {
-                    logger.info("User authenticated successfully: {}", email);
-                    return Optional.of(user);
-                } else {
-                    logger.warn("User authentication failed - user not active: {} (status: {})", email, user.getStatus());
-                    throw new IllegalStateException("User account is not active. Status: " + user.getStatus());
-                }
-            } else {
-                logger.warn("User authentication failed - invalid password: {}", email);
-            }
-        } else {
-            logger.warn("User authentication failed - user not found: {}", email);
+    /**
+     * Authenticate user login, given the outcome of the password check on the hashing pool
+     */
+    public Optional<User> authenticateUser(User user, String password, boolean passwordMatches) {
+        if (!passwordMatches) {
+            authFailureLog.warn("User authentication failed - invalid password: {}", user.getEmail());
+            return Optional.empty();
+        }
+
+        // Check if user is active
+        if (!user.isActive()) {
+            authFailureLog.warn("User authentication failed - user not active: {} (status: {})", user.getEmail(), user.getStatus());
+            throw new AccountNotActiveException(user.getStatus());
         }
 
-        return Optional.empty();
+        upgradePasswordHash(user, password);
+        logger.info("User authenticated successfully: {}", user.getEmail());
+        return Optional.of(user);
+    }
+
+    /**
+     * Re-hash with the current encoder when the stored hash uses an older algorithm, cost or no {id} prefix
+     * Only possible right after a successful match, while the plaintext is in hand. The new hash is
+     * computed on the hashing pool once the login commits and written in a transaction of its own,
+     * replacing only the hash that was matched: a failure there leaves the login alone and the
+     * upgrade is retried on the next one.
+     */
+    private void upgradePasswordHash(User user, String password) {
+        if (!passwordEncoder.upgradeEncoding(user.getPasswordHash())) {
+            return;
+        }
+        String userId = user.getId();
+        String matchedHash = user.getPasswordHash();
+        afterCommit(() -> {
+            CompletableFuture<String> upgradedHash;
+            try {
+                upgradedHash = passwordHashingExecutor.encode(password);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Password hash upgrade for user {} deferred - hashing queue full", userId);
+                return;
+            }
+            upgradedHash.thenAccept(hash -> {
+                Integer updated = upgradeTransaction.execute(status ->
+                        userRepository.updatePasswordHash(userId, matchedHash, hash));
+                if (updated != null && updated > 0) {
+                    logger.info("Upgraded password hash for user: {}", userId);
+                }
+            }).exceptionally(e -> {
+                logger.warn("Password hash upgrade failed for user: {} - {}", userId,
+                        (e instanceof CompletionException && e.getCause() != null ? e.getCause() : e).getMessage());
+                return null;
+            });
+        });
     }
 
     /**
@@ -125,6 +231,29 @@ public class UserService {
                 .map(this::convertToResponse);
     }
 
+    /**
+     * Token-minting fields of a user by ID (no metadata LOB)
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserAuthView> getAuthViewById(String userId) {
+        return userRepository.findAuthViewById(userId);
+    }
+
+    /**
+     * Token-minting fields and session epoch of a user by ID
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserSessionView> getSessionViewById(String userId) {
+        return userRepository.findSessionViewById(userId);
+    }
+
+    /**
+     * Start a new session epoch, ending every stateless refresh token issued before it
+     */
+    public void incrementSessionEpoch(String userId) {
+        userRepository.incrementSessionEpoch(userId);
+    }
+
     /**
      * Get user by email
      */
@@ -152,10 +281,10 @@ public class UserService {
         logger.info("Admin {} approving user: {}", adminId, userId);
 
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+                .orElseThrow(() -> new UserNotFoundException(userId));
 
         if (!user.isPending()) {
-            throw new IllegalStateException("User is not in PENDING status. Current status: " + user.getStatus());
+            throw new InvalidUserStateException(UserStatus.PENDING, user.getStatus());
         }
 
         // Update user status
@@ -164,6 +293,8 @@ public class UserService {
         user.setUpdatedAt(LocalDateTime.now());
 
         User savedUser = userRepository.save(user);
+        // Cached refresh tokens carry the owner's status
+        refreshTokenCache.evictUser(userId);
 
         // Create audit log
         UserAuditLog auditLog = UserAuditLog.userApproved(userId, adminId, reason);
@@ -184,10 +315,10 @@ public class UserService {
         logger.info("Admin {} rejecting user: {}", adminId, userId);
 
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+                .orElseThrow(() -> new UserNotFoundException(userId));
 
         if (!user.isPending()) {
-            throw new IllegalStateException("User is not in PENDING status. Current status: " + user.getStatus());
+            throw new InvalidUserStateException(UserStatus.PENDING, user.getStatus());
         }
 
         // Update user status
@@ -195,6 +326,8 @@ public class UserService {
         user.setUpdatedAt(LocalDateTime.now());
 
         User savedUser = userRepository.save(user);
+        // Cached refresh tokens carry the owner's status
+        refreshTokenCache.evictUser(userId);
 
         // Create audit log
         UserAuditLog auditLog = UserAuditLog.userRejected(userId, adminId, reason);
@@ -225,6 +358,19 @@ public class UserService {
         return userRepository.getUserStatistics();
     }
 
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
     /**
      * Convert User entity to UserResponse DTO
      */
@@ -0,0 +1,169 @@
+package com.useronboard.service.tools;
+
+import com.useronboard.service.util.MappedBloomFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the breached-password Bloom filter file read by BreachedPasswordFilter
+ * Streams the corpus once, line by line, straight into a memory-mapped output file, so a
+ * multi-GB list needs neither the list nor the filter on the heap.
+ *
+ * Input formats:
+ *   sha1  - 40 hex digits per line, optionally followed by ":count" (Pwned Passwords SHA-1 export)
+ *   plain - one password per line, hashed with SHA-1 of its UTF-8 bytes
+ *
+ * Usage: BreachedPasswordFilterBuilder --input=pwned-passwords-sha1.txt|- --output=breached.bloom
+ *                                      [--format=sha1|plain] [--false-positive-rate=0.001]
+ *                                      [--expected=N (default: estimated from the input size)]
+ */
+public final class BreachedPasswordFilterBuilder {
+
+    private static final int READ_BUFFER_BYTES = 1 << 20;
+    private static final int MAX_LINE_BYTES = 1024;
+    private static final int SHA1_HEX_LENGTH = 40;
+    private static final long PROGRESS_EVERY = 100_000_000L;
+
+    private BreachedPasswordFilterBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException, NoSuchAlgorithmException {
+        Map<String, String> options = parseOptions(args);
+        String input = options.get("input");
+        String output = options.get("output");
+        if (input == null || output == null) {
+            System.err.println("Usage: BreachedPasswordFilterBuilder --input=<file|-> --output=<file> "
+                    + "[--format=sha1|plain] [--false-positive-rate=0.001] [--expected=N]");
+            System.exit(2);
+        }
+        boolean plain = "plain".equals(options.getOrDefault("format", "sha1"));
+        double falsePositiveRate = Double.parseDouble(options.getOrDefault("false-positive-rate", "0.001"));
+        long expected = options.containsKey("expected")
+                ? Long.parseLong(options.get("expected"))
+                : estimateLines(input, plain);
+
+        long started = System.nanoTime();
+        MappedBloomFilter filter = MappedBloomFilter.create(Path.of(output), expected, falsePositiveRate);
+        System.out.printf("Filter sized for %d passwords at %.4f%%: %d MiB, %d hash functions%n",
+                expected, falsePositiveRate * 100, filter.bitSize() / 8 / (1024 * 1024), filter.hashCount());
+
+        long skipped;
+        try (InputStream in = "-".equals(input) ? System.in : Files.newInputStream(Path.of(input))) {
+            skipped = load(in, filter, plain);
+        }
+        filter.finish();
+
+        System.out.printf("Added %d passwords (%d lines skipped) in %.1f s%n",
+                filter.elements(), skipped, (System.nanoTime() - started) / 1e9);
+        System.out.printf("Expected false-positive rate: %.4f%%%n", filter.expectedFalsePositiveRate() * 100);
+        if (filter.elements() > expected) {
+            System.out.printf("Warning: %d more passwords than the filter was sized for; rebuild with --expected=%d%n",
+                    filter.elements() - expected, filter.elements());
+        }
+    }
+
+    /**
+     * Add every line to the filter; returns how many lines were not usable
+     */
+    static long load(InputStream in, MappedBloomFilter filter, boolean plain) throws IOException, NoSuchAlgorithmException {
+        MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+        byte[] chunk = new byte[READ_BUFFER_BYTES];
+        byte[] line = new byte[MAX_LINE_BYTES];
+        byte[] key = new byte[20];
+        int lineLength = 0;
+        boolean lineTooLong = false;
+        long skipped = 0;
+
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            for (int i = 0; i < read; i++) {
+                byte b = chunk[i];
+                if (b != '\n') {
+                    if (lineLength < MAX_LINE_BYTES) {
+                        line[lineLength++] = b;
+                    } else {
+                        lineTooLong = true;
+                    }
+                    continue;
+                }
+                if (lineTooLong || !addLine(line, lineLength, filter, plain, sha1, key)) {
+                    skipped++;
+                } else if (filter.elements() % PROGRESS_EVERY == 0) {
+                    System.out.printf("  %d passwords%n", filter.elements());
+                }
+                lineLength = 0;
+                lineTooLong = false;
+            }
+        }
+        // Last line without a trailing newline
+        if (lineLength > 0 && (lineTooLong || !addLine(line, lineLength, filter, plain, sha1, key))) {
+            skipped++;
+        }
+        return skipped;
+    }
+
+    private static boolean addLine(byte[] line, int length, MappedBloomFilter filter, boolean plain,
+                                   MessageDigest sha1, byte[] key) {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        if (length == 0) {
+            return false;
+        }
+        if (plain) {
+            sha1.update(line, 0, length);
+            System.arraycopy(sha1.digest(), 0, key, 0, key.length);
+        } else if (!parseSha1Hex(line, length, key)) {
+            return false;
+        }
+        filter.put(key, 0);
+        return true;
+    }
+
+    /**
+     * 40 hex digits, then end of line or ':'
+     */
+    private static boolean parseSha1Hex(byte[] line, int length, byte[] key) {
+        if (length < SHA1_HEX_LENGTH || (length > SHA1_HEX_LENGTH && line[SHA1_HEX_LENGTH] != ':')) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            int high = Character.digit(line[2 * i], 16);
+            int low = Character.digit(line[2 * i + 1], 16);
+            if (high < 0 || low < 0) {
+                return false;
+            }
+            key[i] = (byte) (high << 4 | low);
+        }
+        return true;
+    }
+
+    /**
+     * Upper-bound line count from the file size: 41 bytes per SHA-1 line, 8 per password
+     */
+    private static long estimateLines(String input, boolean plain) throws IOException {
+        if ("-".equals(input)) {
+            throw new IllegalArgumentException("--expected is required when reading from stdin");
+        }
+        return Math.max(1, Files.size(Path.of(input)) / (plain ? 8 : SHA1_HEX_LENGTH + 1));
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,142 @@
+package com.useronboard.service.tools;
+
+import com.useronboard.service.security.PasswordEncoders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line calibration of password hashing cost
+ * Measures verify time on the current machine and recommends the strongest BCrypt cost and
+ * Argon2 memory setting that stay within a target latency, plus the resulting logins per core.
+ *
+ * Usage: PasswordHashCalibrator [--target-ms=250] [--algorithm=bcrypt|argon2|all] [--samples=5]
+ *                               [--argon2-iterations=2] [--argon2-parallelism=1]
+ */
+public final class PasswordHashCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "Calibration-Passw0rd!";
+    private static final int MIN_BCRYPT_COST = 10;
+    private static final int MAX_BCRYPT_COST = 16;
+    private static final int MIN_ARGON2_MEMORY_KIB = 8 * 1024;
+    private static final int MAX_ARGON2_MEMORY_KIB = 1024 * 1024;
+
+    private PasswordHashCalibrator() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = parseOptions(args);
+        long targetMs = Long.parseLong(options.getOrDefault("target-ms", "250"));
+        String algorithm = options.getOrDefault("algorithm", "all");
+        int samples = Integer.parseInt(options.getOrDefault("samples", "5"));
+
+        System.out.printf("Target verify time: %d ms, %d samples per setting, %d CPUs%n",
+                targetMs, samples, Runtime.getRuntime().availableProcessors());
+
+        if ("all".equals(algorithm) || PasswordEncoders.BCRYPT.equals(algorithm)) {
+            calibrateBcrypt(targetMs, samples);
+        }
+        if ("all".equals(algorithm) || PasswordEncoders.ARGON2.equals(algorithm)) {
+            int iterations = Integer.parseInt(options.getOrDefault("argon2-iterations", "2"));
+            int parallelism = Integer.parseInt(options.getOrDefault("argon2-parallelism", "1"));
+            calibrateArgon2(targetMs, samples, iterations, parallelism);
+        }
+    }
+
+    /**
+     * Each BCrypt cost step doubles the work, so walk up until the target is exceeded
+     */
+    private static void calibrateBcrypt(long targetMs, int samples) {
+        System.out.println();
+        System.out.println("BCrypt");
+        Integer chosenCost = null;
+        double chosenMs = 0;
+        for (int cost = MIN_BCRYPT_COST; cost <= MAX_BCRYPT_COST; cost++) {
+            double medianMs = medianVerifyMillis(PasswordEncoders.bcrypt(cost), samples);
+            System.out.printf("  cost=%-2d  %8.1f ms%n", cost, medianMs);
+            if (medianMs <= targetMs) {
+                chosenCost = cost;
+                chosenMs = medianMs;
+            } else {
+                break;
+            }
+        }
+
+        if (chosenCost == null) {
+            System.out.printf("  Even cost %d exceeds the target; consider a faster host or a higher target%n", MIN_BCRYPT_COST);
+            return;
+        }
+        System.out.printf("  Recommended: security.password.encoder=bcrypt, security.password.bcrypt.cost=%d%n", chosenCost);
+        printCapacity(chosenMs);
+    }
+
+    /**
+     * Argon2 cost is driven by memory; iterations and parallelism stay fixed while memory doubles
+     */
+    private static void calibrateArgon2(long targetMs, int samples, int iterations, int parallelism) {
+        System.out.println();
+        System.out.printf("Argon2id (iterations=%d, parallelism=%d)%n", iterations, parallelism);
+        Integer chosenMemory = null;
+        double chosenMs = 0;
+        for (int memoryKib = MIN_ARGON2_MEMORY_KIB; memoryKib <= MAX_ARGON2_MEMORY_KIB; memoryKib *= 2) {
+            double medianMs = medianVerifyMillis(PasswordEncoders.argon2(memoryKib, iterations, parallelism), samples);
+            System.out.printf("  memory=%-5d MiB  %8.1f ms%n", memoryKib / 1024, medianMs);
+            if (medianMs <= targetMs) {
+                chosenMemory = memoryKib;
+                chosenMs = medianMs;
+            } else {
+                break;
+            }
+        }
+
+        if (chosenMemory == null) {
+            System.out.printf("  Even %d MiB exceeds the target; lower iterations or raise the target%n", MIN_ARGON2_MEMORY_KIB / 1024);
+            return;
+        }
+        System.out.printf("  Recommended: security.password.encoder=argon2, security.password.argon2.memory-kib=%d, "
+                + "security.password.argon2.iterations=%d, security.password.argon2.parallelism=%d%n",
+                chosenMemory, iterations, parallelism);
+        System.out.printf("  Peak memory per concurrent login: %d MiB%n", chosenMemory / 1024);
+        printCapacity(chosenMs);
+    }
+
+    private static void printCapacity(double verifyMs) {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        double perCore = 1000.0 / verifyMs;
+        System.out.printf("  Capacity: ~%.1f logins/s per core, ~%.0f logins/s with %d hashing threads%n",
+                perCore, perCore * cpus, cpus);
+    }
+
+    /**
+     * Median of several matches() calls after one warm-up, in milliseconds
+     */
+    static double medianVerifyMillis(PasswordEncoder encoder, int samples) {
+        String hash = encoder.encode(SAMPLE_PASSWORD);
+        encoder.matches(SAMPLE_PASSWORD, hash);
+
+        double[] timings = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            if (!encoder.matches(SAMPLE_PASSWORD, hash)) {
+                throw new IllegalStateException("Calibration hash did not verify");
+            }
+            timings[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(timings);
+        return timings[samples / 2];
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
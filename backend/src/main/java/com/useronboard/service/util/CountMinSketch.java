@@ -0,0 +1,107 @@
+package com.useronboard.service.util;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Fixed-size Count-Min sketch of string frequencies
+ * depth rows of width counters; a key increments one counter per row and its estimate is the
+ * smallest of those counters, which never undercounts and overcounts by at most ~e/width of the
+ * total with probability 1 - e^-depth. Memory is depth x width ints however many distinct keys
+ * are seen. Counters are updated lock-free and can be scaled down together to age old counts out.
+ *
+ * Row hashes are seeded per instance, so keys crafted to collide with someone else's (and inflate
+ * their estimate) cannot be computed from outside.
+ */
+public final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final AtomicIntegerArray counters;
+    private final long seed;
+
+    public CountMinSketch(int width, int depth) {
+        this(width, depth, new SecureRandom().nextLong());
+    }
+
+    CountMinSketch(int width, int depth, long seed) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Width and depth must be positive: " + width + "x" + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicIntegerArray(Math.multiplyExact(width, depth));
+        this.seed = seed;
+    }
+
+    /**
+     * Count one occurrence; returns the key's estimate including it
+     */
+    public int add(String key) {
+        long hash = hash(key);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, hash)));
+        }
+        return estimate;
+    }
+
+    public int estimate(String key) {
+        long hash = hash(key);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, hash)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Multiply every counter by factor (0..1), rounding down
+     * Increments racing with a decay are kept, only scaled or not
+     */
+    public void decay(double factor) {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> (int) (count * factor));
+        }
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Counter of this key in the given row: the key hash re-mixed with the row number
+     */
+    private int index(int row, long hash) {
+        long rowHash = mix(hash + (row + 1) * 0x9e3779b97f4a7c15L);
+        return row * width + (int) Long.remainderUnsigned(rowHash, width);
+    }
+
+    /**
+     * 64-bit seeded hash of the chars
+     */
+    private long hash(String key) {
+        long h = seed;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x9e3779b97f4a7c15L;
+            h ^= h >>> 29;
+        }
+        return mix(h ^ key.length());
+    }
+
+    /**
+     * MurmurHash3 finalizer
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
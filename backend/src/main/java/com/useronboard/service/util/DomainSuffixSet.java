@@ -0,0 +1,189 @@
+package com.useronboard.service.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable set of domains matched by label suffix: "mail.spam.example" matches an entry
+ * "spam.example", "notspam.example" does not
+ * Each domain is stored only as a 64-bit fingerprint of its characters read right to left, in an
+ * open-addressed long[] at most half full: 16-32 bytes per domain, no strings retained. A lookup
+ * hashes the address once from the end, probing the table at every label boundary, so it costs
+ * one table read per label and allocates nothing. Two different domains share a fingerprint with
+ * probability ~2^-64 per pair, which is acceptable for a blocklist.
+ */
+public final class DomainSuffixSet {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long EMPTY = 0;
+
+    private static final DomainSuffixSet EMPTY_SET = new DomainSuffixSet(new long[1], 0);
+
+    private final long[] table;
+    private final int mask;
+    private final int size;
+
+    private DomainSuffixSet(long[] table, int size) {
+        this.table = table;
+        this.mask = table.length - 1;
+        this.size = size;
+    }
+
+    public static DomainSuffixSet empty() {
+        return EMPTY_SET;
+    }
+
+    public static DomainSuffixSet of(Collection<String> domains) {
+        Builder builder = new Builder();
+        domains.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * One domain per line; blank lines and '#' comments are ignored, "*." and leading dots stripped
+     */
+    public static DomainSuffixSet load(Path file) throws IOException {
+        Builder builder = new Builder();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                builder.add(line);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Index in the address where the matched listed domain starts, or -1
+     * Accepts a bare domain or a full email address; only the part after the last '@' is matched.
+     */
+    public int matchStart(CharSequence address) {
+        if (size == 0) {
+            return -1;
+        }
+        long hash = FNV_OFFSET;
+        int end = address.length();
+        for (int i = end - 1; i >= 0; i--) {
+            char c = address.charAt(i);
+            if (c == '@') {
+                return i < end - 1 && contains(hash) ? i + 1 : -1;
+            }
+            if (c == '.' && i < end - 1 && contains(hash)) {
+                return i + 1;
+            }
+            hash = step(hash, c);
+        }
+        return end > 0 && contains(hash) ? 0 : -1;
+    }
+
+    public boolean matches(CharSequence address) {
+        return matchStart(address) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean contains(long hash) {
+        long fingerprint = fingerprint(hash);
+        int slot = (int) mix(fingerprint) & mask;
+        long stored;
+        while ((stored = table[slot]) != EMPTY) {
+            if (stored == fingerprint) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    private static long step(long hash, char c) {
+        return (hash ^ Character.toLowerCase(c)) * FNV_PRIME;
+    }
+
+    private static long fingerprint(long hash) {
+        return hash == EMPTY ? 1 : hash;
+    }
+
+    /**
+     * MurmurHash3 finalizer, so the low bits used for the slot depend on every character
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Collects fingerprints in a growable array; the table is sized once at build
+     */
+    public static final class Builder {
+
+        private long[] fingerprints = new long[1024];
+        private int count;
+
+        public Builder add(String line) {
+            int start = 0;
+            int end = line.indexOf('#');
+            if (end < 0) {
+                end = line.length();
+            }
+            while (start < end && Character.isWhitespace(line.charAt(start))) {
+                start++;
+            }
+            while (end > start && (Character.isWhitespace(line.charAt(end - 1)) || line.charAt(end - 1) == '.')) {
+                end--;
+            }
+            if (line.startsWith("*", start)) {
+                start++;
+            }
+            while (start < end && line.charAt(start) == '.') {
+                start++;
+            }
+            if (start == end) {
+                return this;
+            }
+
+            long hash = FNV_OFFSET;
+            for (int i = end - 1; i >= start; i--) {
+                hash = step(hash, line.charAt(i));
+            }
+            if (count == fingerprints.length) {
+                fingerprints = Arrays.copyOf(fingerprints, count * 2);
+            }
+            fingerprints[count++] = fingerprint(hash);
+            return this;
+        }
+
+        public DomainSuffixSet build() {
+            if (count == 0) {
+                return EMPTY_SET;
+            }
+            int capacity = Integer.highestOneBit(Math.max(2, count * 2 - 1)) << 1;
+            long[] table = new long[capacity];
+            int mask = capacity - 1;
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                long fingerprint = fingerprints[i];
+                int slot = (int) mix(fingerprint) & mask;
+                while (table[slot] != EMPTY && table[slot] != fingerprint) {
+                    slot = (slot + 1) & mask;
+                }
+                if (table[slot] == EMPTY) {
+                    table[slot] = fingerprint;
+                    size++;
+                }
+            }
+            return new DomainSuffixSet(table, size);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.useronboard.service.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches one or more directories and runs a callback on a dedicated daemon thread
+ * Bursts of events (e.g. a Kubernetes secret symlink swap) are debounced into one callback
+ */
+public class FileChangeWatcher implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileChangeWatcher.class);
+
+    private final String name;
+    private final WatchService watchService;
+    private final Duration debounce;
+    private final Runnable onChange;
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    public FileChangeWatcher(String name, Collection<Path> directories, Duration debounce, Runnable onChange) throws IOException {
+        this.name = name;
+        this.debounce = debounce;
+        this.onChange = onChange;
+        this.watchService = FileSystems.getDefault().newWatchService();
+
+        for (Path directory : directories) {
+            directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        }
+
+        this.thread = new Thread(this::run, name + "-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+        logger.info("Started file watcher {}", name);
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                WatchKey key = watchService.take();
+                drain(key);
+
+                // Keep absorbing events until the directory has been quiet for the debounce period
+                WatchKey next;
+                while ((next = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                    drain(next);
+                }
+
+                try {
+                    onChange.run();
+                } catch (RuntimeException e) {
+                    logger.error("File watcher {} callback failed", name, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Closed during shutdown
+        }
+    }
+
+    private static void drain(WatchKey key) {
+        key.pollEvents();
+        key.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        watchService.close();
+        thread.interrupt();
+    }
+}
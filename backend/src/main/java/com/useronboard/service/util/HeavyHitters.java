@@ -0,0 +1,129 @@
+package com.useronboard.service.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The k most frequent keys of a stream, in fixed memory
+ * Every key is counted in a CountMinSketch; a min-heap keeps the k keys with the highest
+ * estimates seen so far, so only k key strings are ever retained. Most adds touch only the
+ * sketch: the heap lock is taken when the estimate reaches the smallest count in a full heap.
+ * decay scales sketch and heap together, so counts reflect recent activity rather than all time.
+ */
+public final class HeavyHitters {
+
+    /**
+     * A key and its estimated count
+     */
+    public record Entry(String key, long count) {
+    }
+
+    private final CountMinSketch sketch;
+    private final int k;
+
+    private final Object lock = new Object();
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingInt(c -> c.count));
+    private final Map<String, Candidate> candidates = new HashMap<>();
+    private volatile int admissionThreshold;
+
+    public HeavyHitters(int k, int width, int depth) {
+        this(k, new CountMinSketch(width, depth));
+    }
+
+    HeavyHitters(int k, CountMinSketch sketch) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.k = k;
+        this.sketch = sketch;
+    }
+
+    /**
+     * Count one occurrence; returns the key's estimate including it
+     */
+    public int add(String key) {
+        int estimate = sketch.add(key);
+        if (estimate >= admissionThreshold) {
+            synchronized (lock) {
+                offer(key, estimate);
+            }
+        }
+        return estimate;
+    }
+
+    public int estimate(String key) {
+        return sketch.estimate(key);
+    }
+
+    /**
+     * Current top keys, highest count first
+     */
+    public List<Entry> top() {
+        List<Entry> top = new ArrayList<>(k);
+        synchronized (lock) {
+            for (Candidate candidate : heap) {
+                top.add(new Entry(candidate.key, candidate.count));
+            }
+        }
+        top.sort(Comparator.comparingLong(Entry::count).reversed().thenComparing(Entry::key));
+        return top;
+    }
+
+    /**
+     * Scale every count by factor (0..1); keys whose count reaches zero leave the top list
+     */
+    public void decay(double factor) {
+        sketch.decay(factor);
+        synchronized (lock) {
+            List<Candidate> kept = new ArrayList<>(heap);
+            heap.clear();
+            candidates.clear();
+            for (Candidate candidate : kept) {
+                candidate.count = sketch.estimate(candidate.key);
+                if (candidate.count > 0) {
+                    heap.add(candidate);
+                    candidates.put(candidate.key, candidate);
+                }
+            }
+            updateThreshold();
+        }
+    }
+
+    private void offer(String key, int estimate) {
+        Candidate candidate = candidates.get(key);
+        if (candidate != null) {
+            heap.remove(candidate);
+            candidate.count = Math.max(candidate.count, estimate);
+            heap.add(candidate);
+        } else if (heap.size() < k) {
+            candidate = new Candidate(key, estimate);
+            heap.add(candidate);
+            candidates.put(key, candidate);
+        } else if (estimate > heap.peek().count) {
+            candidates.remove(heap.poll().key);
+            candidate = new Candidate(key, estimate);
+            heap.add(candidate);
+            candidates.put(key, candidate);
+        }
+        updateThreshold();
+    }
+
+    private void updateThreshold() {
+        admissionThreshold = heap.size() < k ? 0 : heap.peek().count;
+    }
+
+    private static final class Candidate {
+
+        private final String key;
+        private int count;
+
+        Candidate(String key, int count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.useronboard.service.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bloom filter over fixed-size digests, stored in a file and memory-mapped
+ * Keys are already uniformly distributed (e.g. SHA-1 of a password), so the first 16 bytes
+ * serve directly as the two hashes for Kirsch-Mitzenmacher double hashing: a lookup reads k
+ * bits from the mapping and allocates nothing. The page cache holds the bits, not the heap.
+ * Built once by a single writer (create, put, finish) and then opened read-only.
+ *
+ * File layout, little-endian: magic, bit count, hash count, element count, then the bits.
+ */
+public final class MappedBloomFilter {
+
+    private static final long MAGIC = 0x4d42_4c4f_4f4d_3031L;
+    private static final int HEADER_BYTES = 32;
+    private static final int MIN_KEY_BYTES = 16;
+
+    private final ByteBuffer buffer;
+    private final long bitCount;
+    private final int hashCount;
+    private long elements;
+
+    private MappedBloomFilter(ByteBuffer buffer, long bitCount, int hashCount, long elements) {
+        this.buffer = buffer;
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.elements = elements;
+    }
+
+    /**
+     * Map an existing filter file read-only
+     */
+    public static MappedBloomFilter open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a Bloom filter file: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            long bitCount = buffer.getLong(8);
+            int hashCount = buffer.getInt(16);
+            if (buffer.getLong(0) != MAGIC || bitCount <= 0 || hashCount <= 0
+                    || channel.size() != HEADER_BYTES + ((bitCount + 7) >>> 3)) {
+                throw new IOException("Not a Bloom filter file: " + file);
+            }
+            return new MappedBloomFilter(buffer, bitCount, hashCount, buffer.getLong(24));
+        }
+    }
+
+    /**
+     * Create (or replace) a zeroed filter file sized for the given capacity and false-positive rate
+     */
+    public static MappedBloomFilter create(Path file, long expectedInsertions, double falsePositiveRate) throws IOException {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        long bitCount = BloomFilter.optimalBitCount(expectedInsertions, falsePositiveRate);
+        long size = HEADER_BYTES + ((bitCount + 7) >>> 3);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter would need " + size + " bytes; the limit is 2 GiB. "
+                    + "Raise the false-positive rate or split the corpus");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int hashCount = BloomFilter.optimalHashCount(bitCount, expectedInsertions);
+            buffer.putLong(0, MAGIC);
+            buffer.putLong(8, bitCount);
+            buffer.putInt(16, hashCount);
+            return new MappedBloomFilter(buffer, bitCount, hashCount, 0);
+        }
+    }
+
+    /**
+     * Add a key of at least 16 uniformly distributed bytes starting at offset (single writer only)
+     */
+    public void put(byte[] key, int offset) {
+        checkKey(key, offset);
+        long h1 = readLong(key, offset);
+        long h2 = readLong(key, offset + 8);
+        long combined = h1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitCount;
+            int position = HEADER_BYTES + (int) (index >>> 3);
+            buffer.put(position, (byte) (buffer.get(position) | (1 << (index & 7))));
+            combined += h2;
+        }
+        elements++;
+    }
+
+    /**
+     * false means the key was definitely never added; true means it probably was
+     */
+    public boolean mightContain(byte[] key, int offset) {
+        checkKey(key, offset);
+        long h1 = readLong(key, offset);
+        long h2 = readLong(key, offset + 8);
+        long combined = h1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitCount;
+            if ((buffer.get(HEADER_BYTES + (int) (index >>> 3)) & (1 << (index & 7))) == 0) {
+                return false;
+            }
+            combined += h2;
+        }
+        return true;
+    }
+
+    /**
+     * Record the element count and flush a filter being built to disk
+     */
+    public void finish() {
+        buffer.putLong(24, elements);
+        if (buffer instanceof MappedByteBuffer mapped) {
+            mapped.force();
+        }
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    public long elements() {
+        return elements;
+    }
+
+    /**
+     * False-positive probability expected from the element count
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * elements / bitCount), hashCount);
+    }
+
+    private static void checkKey(byte[] key, int offset) {
+        if (offset < 0 || key.length - offset < MIN_KEY_BYTES) {
+            throw new IllegalArgumentException("Bloom filter keys need at least " + MIN_KEY_BYTES + " bytes");
+        }
+    }
+
+    private static long readLong(byte[] key, int offset) {
+        return (key[offset] & 0xffL)
+                | (key[offset + 1] & 0xffL) << 8
+                | (key[offset + 2] & 0xffL) << 16
+                | (key[offset + 3] & 0xffL) << 24
+                | (key[offset + 4] & 0xffL) << 32
+                | (key[offset + 5] & 0xffL) << 40
+                | (key[offset + 6] & 0xffL) << 48
+                | (key[offset + 7] & 0xffL) << 56;
+    }
+}
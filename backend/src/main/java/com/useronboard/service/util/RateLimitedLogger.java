@@ -0,0 +1,63 @@
+package com.useronboard.service.util;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * WARN logging capped at a fixed number of messages per window, for events an attacker can trigger at will
+ * (failed logins, forged tokens). Messages over the cap are counted, not formatted; the count is reported
+ * with the next message that gets through.
+ */
+public final class RateLimitedLogger {
+
+    private final Logger logger;
+    private final int permitsPerWindow;
+    private final long windowNanos;
+    private final LongSupplier nanoTime;
+
+    private final AtomicLong windowStart;
+    private final AtomicInteger used = new AtomicInteger();
+    private final LongAdder suppressed = new LongAdder();
+
+    public RateLimitedLogger(Logger logger, int permitsPerWindow, Duration window) {
+        this(logger, permitsPerWindow, window, System::nanoTime);
+    }
+
+    RateLimitedLogger(Logger logger, int permitsPerWindow, Duration window, LongSupplier nanoTime) {
+        this.logger = logger;
+        this.permitsPerWindow = permitsPerWindow;
+        this.windowNanos = window.toNanos();
+        this.nanoTime = nanoTime;
+        this.windowStart = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    public void warn(String format, Object... arguments) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        if (!tryAcquire()) {
+            suppressed.increment();
+            return;
+        }
+        long dropped = suppressed.sumThenReset();
+        if (dropped > 0) {
+            logger.warn("{} similar messages suppressed", dropped);
+        }
+        logger.warn(format, arguments);
+    }
+
+    private boolean tryAcquire() {
+        long now = nanoTime.getAsLong();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        // Approximate at a window boundary; a few extra lines are harmless
+        return used.incrementAndGet() <= permitsPerWindow;
+    }
+}
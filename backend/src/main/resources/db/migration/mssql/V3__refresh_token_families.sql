@@ -0,0 +1,6 @@
+-- MSSQL Refresh Token Families
+-- Rotated refresh tokens share a family id so reuse of a consumed token can revoke the whole chain
+
+ALTER TABLE refresh_tokens ADD family_id VARCHAR(36) NULL;
+
+CREATE INDEX IX_refresh_tokens_family_id ON refresh_tokens(family_id);
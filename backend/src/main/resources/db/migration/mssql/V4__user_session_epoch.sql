@@ -0,0 +1,4 @@
+-- MSSQL User Session Epoch
+-- Stateless refresh tokens carry the epoch they were issued under; logging out all sessions increments it
+
+ALTER TABLE users ADD session_epoch INT NOT NULL DEFAULT 0;
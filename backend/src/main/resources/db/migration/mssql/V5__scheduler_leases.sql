@@ -0,0 +1,8 @@
+-- MSSQL Scheduler Leases
+-- One row per cluster-wide job; the node holding an unexpired lease is the only one running it
+
+CREATE TABLE scheduler_leases (
+    name VARCHAR(64) NOT NULL PRIMARY KEY,
+    owner VARCHAR(128) NOT NULL,
+    lease_until DATETIME2 NOT NULL
+);
@@ -0,0 +1,4 @@
+-- Oracle User Session Epoch
+-- Stateless refresh tokens carry the epoch they were issued under; logging out all sessions increments it
+
+ALTER TABLE users ADD session_epoch NUMBER(10) DEFAULT 0 NOT NULL;
@@ -0,0 +1,8 @@
+-- Oracle Scheduler Leases
+-- One row per cluster-wide job; the node holding an unexpired lease is the only one running it
+
+CREATE TABLE scheduler_leases (
+    name VARCHAR2(64) NOT NULL PRIMARY KEY,
+    owner VARCHAR2(128) NOT NULL,
+    lease_until TIMESTAMP NOT NULL
+);
@@ -0,0 +1,96 @@
+package com.useronboard.service.benchmark;
+
+import com.useronboard.service.security.JwtKeyManager;
+import com.useronboard.service.security.JwtSigningAlgorithm;
+import com.useronboard.service.security.JwtTokenFactory;
+import com.useronboard.service.security.JwtUtil;
+import com.useronboard.service.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Shared fixtures for the JMH benchmarks
+ * Writes throwaway PEM key pairs and wires a JwtUtil the way Spring would
+ */
+final class BenchmarkKeys {
+
+    private BenchmarkKeys() {
+    }
+
+    /**
+     * Generate an RSA-2048 key pair and write it as PKCS8/X509 PEM files into a temp directory
+     */
+    static Path[] writeRsaKeyPair() throws IOException, NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return writeKeyPair(generator.generateKeyPair());
+    }
+
+    /**
+     * Generate a key pair for the given signing mode (RSA-2048, EC P-256 or Ed25519)
+     */
+    static Path[] writeKeyPair(JwtSigningAlgorithm algorithm) throws IOException, GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm.getKeyFactoryAlgorithm());
+        if (algorithm == JwtSigningAlgorithm.RS256) {
+            generator.initialize(2048);
+        } else if (algorithm == JwtSigningAlgorithm.ES256) {
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+        }
+        return writeKeyPair(generator.generateKeyPair());
+    }
+
+    static Path[] writeKeyPair(KeyPair keyPair) throws IOException {
+        Path dir = Files.createTempDirectory("jwt-bench-keys");
+        Path privateKey = dir.resolve("private_key.pem");
+        Path publicKey = dir.resolve("public_key.pem");
+        Files.writeString(privateKey, pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()), StandardCharsets.US_ASCII);
+        Files.writeString(publicKey, pem("PUBLIC KEY", keyPair.getPublic().getEncoded()), StandardCharsets.US_ASCII);
+        return new Path[] {privateKey, publicKey};
+    }
+
+    /**
+     * Build a JwtUtil pointing at the given key files with production expiry defaults
+     */
+    static JwtUtil jwtUtil(Path[] keyFiles) {
+        return jwtUtil(keyFiles, JwtSigningAlgorithm.RS256, false);
+    }
+
+    static JwtUtil jwtUtil(Path[] keyFiles, boolean verifiedCacheEnabled) {
+        return jwtUtil(keyFiles, JwtSigningAlgorithm.RS256, verifiedCacheEnabled);
+    }
+
+    static JwtUtil jwtUtil(Path[] keyFiles, JwtSigningAlgorithm algorithm, boolean verifiedCacheEnabled) {
+        VerifiedTokenCache cache = new VerifiedTokenCache(verifiedCacheEnabled, 10_000, Duration.ofMinutes(5), Clock.systemUTC(), new SimpleMeterRegistry());
+        JwtKeyManager keyManager = keyManager(keyFiles, algorithm, cache);
+        JwtUtil jwtUtil = new JwtUtil(keyManager, tokenFactory(keyManager), cache, Clock.systemUTC());
+        jwtUtil.initializeKeys();
+        return jwtUtil;
+    }
+
+    static JwtKeyManager keyManager(Path[] keyFiles, JwtSigningAlgorithm algorithm, VerifiedTokenCache cache) {
+        return new JwtKeyManager(keyFiles[0].toString(), keyFiles[1].toString(),
+                algorithm.getHeaderValue(), "", Duration.ofMinutes(30), false, cache, Clock.systemUTC());
+    }
+
+    static JwtTokenFactory tokenFactory(JwtKeyManager keyManager) {
+        return new JwtTokenFactory(keyManager, Clock.systemUTC(), Duration.ofMinutes(15), Duration.ofDays(7));
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, new byte[] {'\n'}).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+}
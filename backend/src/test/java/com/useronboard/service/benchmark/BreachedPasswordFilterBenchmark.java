@@ -0,0 +1,77 @@
+package com.useronboard.service.benchmark;
+
+import com.useronboard.service.security.BreachedPasswordFilter;
+import com.useronboard.service.util.MappedBloomFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the breached-password check on /register
+ *
+ * Builds a 10M-entry filter (~17 MiB at 0.1%) from random digests and probes it with a password
+ * that is not in it, the common case: SHA-1 of the password plus up to k reads from the mapping.
+ * Add -prof gc to confirm the check allocates nothing per call.
+ *
+ * Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.useronboard.service.benchmark.BreachedPasswordFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BreachedPasswordFilterBenchmark {
+
+    private static final int CORPUS_SIZE = 10_000_000;
+
+    private Path file;
+    private BreachedPasswordFilter filter;
+
+    @Setup
+    public void setUp() throws Exception {
+        file = Files.createTempFile("breached", ".bloom");
+        MappedBloomFilter bloom = MappedBloomFilter.create(file, CORPUS_SIZE, 0.001);
+        byte[] digest = new byte[20];
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            ThreadLocalRandom.current().nextBytes(digest);
+            bloom.put(digest, 0);
+        }
+        bloom.finish();
+        filter = new BreachedPasswordFilter(file.toString(), new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public boolean isBreached() {
+        return filter.isBreached("correct horse battery staple");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BreachedPasswordFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package com.useronboard.service.benchmark;
+
+import com.useronboard.service.security.JwtUtil;
+import com.useronboard.service.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token in JwtRequestFilter
+ *
+ * legacyFilterPath reproduces the previous filter: extractUserId, validateToken (extractUserId +
+ * isTokenExpired), extractEmail and extractRoles, each building a fresh parser and verifying the
+ * RS256 signature. verifyOnce is the current path through JwtUtil.verifyToken, and
+ * verifyCached is the same call with the verified-token cache enabled (repeat token).
+ *
+ * Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.useronboard.service.benchmark.JwtVerificationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtUtil cachingJwtUtil;
+    private PublicKey publicKey;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        Path[] keyFiles = BenchmarkKeys.writeRsaKeyPair();
+        jwtUtil = BenchmarkKeys.jwtUtil(keyFiles);
+        cachingJwtUtil = BenchmarkKeys.jwtUtil(keyFiles, true);
+        publicKey = readPublicKey(keyFiles[1]);
+        token = jwtUtil.generateAccessToken("2f1c7d0e-5b8a-4b7f-9d55-0c1f4a1e9b21", "jane.doe@example.com", "USER,ADMIN");
+    }
+
+    @Benchmark
+    public void legacyFilterPath(Blackhole bh) {
+        String userId = legacyParse(token).getSubject();
+        bh.consume(legacyParse(token).getSubject().equals(userId)
+                && !legacyParse(token).getExpiration().before(new Date()));
+        bh.consume(legacyParse(token).get("email", String.class));
+        bh.consume(legacyParse(token).get("roles", String.class));
+    }
+
+    @Benchmark
+    public VerifiedToken verifyOnce() {
+        return jwtUtil.verifyToken(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return cachingJwtUtil.verifyToken(token);
+    }
+
+    private Claims legacyParse(String jwt) {
+        return Jwts.parser()
+                .verifyWith(publicKey)
+                .build()
+                .parseSignedClaims(jwt)
+                .getPayload();
+    }
+
+    private static PublicKey readPublicKey(Path path) throws Exception {
+        String pem = Files.readString(path)
+                .replace("-----BEGIN PUBLIC KEY-----", "")
+                .replace("-----END PUBLIC KEY-----", "")
+                .replaceAll("\\s", "");
+        return KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(pem)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,160 @@
+package com.useronboard.service.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database cost of one refresh, static tokens vs. rotation
+ *
+ * staticLookup is the non-rotating AuthService path on a near-cache miss: select the token by hash,
+ * then select the user. rotating is the rotation path: a conditional update consumes the presented
+ * token, an insert stores its successor, then the user is selected. Both run as one transaction
+ * against an in-memory H2 copy of the refresh_tokens/users schema preloaded with other sessions.
+ *
+ * Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.useronboard.service.benchmark.RefreshRotationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefreshRotationBenchmark {
+
+    private static final String USER_ID = "2f1c7d0e-5b8a-4b7f-9d55-0c1f4a1e9b21";
+    private static final int PRELOADED_TOKENS = 10_000;
+
+    private Connection connection;
+    private PreparedStatement selectToken;
+    private PreparedStatement selectUser;
+    private PreparedStatement consumeToken;
+    private PreparedStatement insertToken;
+
+    private String staticHash;
+    private String familyId;
+    private String currentHash;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:refresh-rotation;DB_CLOSE_DELAY=-1");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP ALL OBJECTS");
+            ddl.execute("CREATE TABLE users (id VARCHAR(36) PRIMARY KEY, email VARCHAR(255) NOT NULL, "
+                    + "first_name VARCHAR(100), last_name VARCHAR(100), phone VARCHAR(20), roles VARCHAR(255), "
+                    + "status VARCHAR(20), created_at TIMESTAMP, updated_at TIMESTAMP)");
+            ddl.execute("CREATE TABLE refresh_tokens (id VARCHAR(36) PRIMARY KEY, user_id VARCHAR(36) NOT NULL, "
+                    + "token_hash VARCHAR(255) NOT NULL, expires_at TIMESTAMP NOT NULL, created_at TIMESTAMP, "
+                    + "revoked BOOLEAN DEFAULT FALSE, family_id VARCHAR(36))");
+            ddl.execute("CREATE INDEX IX_refresh_tokens_token_hash ON refresh_tokens(token_hash)");
+            ddl.execute("CREATE INDEX IX_refresh_tokens_family_id ON refresh_tokens(family_id)");
+            ddl.execute("INSERT INTO users VALUES ('" + USER_ID + "', 'jane.doe@example.com', 'Jane', 'Doe', "
+                    + "NULL, 'USER', 'ACTIVE', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        }
+
+        selectToken = connection.prepareStatement("SELECT id, user_id, token_hash, expires_at, created_at, revoked, "
+                + "family_id FROM refresh_tokens WHERE token_hash = ? AND revoked = FALSE AND expires_at > ?");
+        selectUser = connection.prepareStatement("SELECT id, email, first_name, last_name, phone, roles, status, "
+                + "created_at, updated_at FROM users WHERE id = ?");
+        consumeToken = connection.prepareStatement("UPDATE refresh_tokens SET revoked = TRUE "
+                + "WHERE token_hash = ? AND user_id = ? AND revoked = FALSE AND expires_at > ?");
+        insertToken = connection.prepareStatement("INSERT INTO refresh_tokens "
+                + "(id, user_id, token_hash, expires_at, created_at, revoked, family_id) VALUES (?, ?, ?, ?, ?, FALSE, ?)");
+
+        for (int i = 0; i < PRELOADED_TOKENS; i++) {
+            insert(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+        }
+        staticHash = UUID.randomUUID().toString();
+        insert(staticHash, UUID.randomUUID().toString());
+        familyId = UUID.randomUUID().toString();
+        currentHash = UUID.randomUUID().toString();
+        insert(currentHash, familyId);
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public String staticLookup() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String userId;
+        selectToken.setString(1, staticHash);
+        selectToken.setTimestamp(2, now);
+        try (ResultSet token = selectToken.executeQuery()) {
+            if (!token.next()) {
+                throw new IllegalStateException("Static token not found");
+            }
+            userId = token.getString(2);
+        }
+        String email = loadUserEmail(userId);
+        connection.commit();
+        return email;
+    }
+
+    @Benchmark
+    public String rotating() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        consumeToken.setString(1, currentHash);
+        consumeToken.setString(2, USER_ID);
+        consumeToken.setTimestamp(3, now);
+        if (consumeToken.executeUpdate() != 1) {
+            throw new IllegalStateException("Rotated token was not consumable");
+        }
+        String nextHash = UUID.randomUUID().toString();
+        insert(nextHash, familyId);
+        String email = loadUserEmail(USER_ID);
+        connection.commit();
+        currentHash = nextHash;
+        return email;
+    }
+
+    private String loadUserEmail(String userId) throws SQLException {
+        selectUser.setString(1, userId);
+        try (ResultSet user = selectUser.executeQuery()) {
+            return user.next() ? user.getString(2) : null;
+        }
+    }
+
+    private void insert(String tokenHash, String tokenFamilyId) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        insertToken.setString(1, UUID.randomUUID().toString());
+        insertToken.setString(2, USER_ID);
+        insertToken.setString(3, tokenHash);
+        insertToken.setTimestamp(4, Timestamp.valueOf(now.plusDays(7)));
+        insertToken.setTimestamp(5, Timestamp.valueOf(now));
+        insertToken.setString(6, tokenFamilyId);
+        insertToken.executeUpdate();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RefreshRotationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,101 @@
+package com.useronboard.service.benchmark;
+
+import com.useronboard.service.security.JwtKeyManager;
+import com.useronboard.service.security.JwtSigningAlgorithm;
+import com.useronboard.service.security.JwtTokenFactory;
+import com.useronboard.service.security.OpaqueTokenGenerator;
+import com.useronboard.service.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token work of one login, signed vs. opaque refresh tokens
+ *
+ * Both variants sign the access token and SHA-256 hash the refresh token for storage, as
+ * AuthService.login does. signedRefresh also signs a refresh JWT (the default); opaqueRefresh draws
+ * 32 random bytes instead. Password verification and the insert are left out: they are the same
+ * in both modes. Throughput is logins per second on one thread; add -t 8 to the JMH runner to see
+ * whether the random source contends.
+ *
+ * Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.useronboard.service.benchmark.RefreshTokenIssuanceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefreshTokenIssuanceBenchmark {
+
+    private static final String USER_ID = "2f1c7d0e-5b8a-4b7f-9d55-0c1f4a1e9b21";
+    private static final String EMAIL = "jane.doe@example.com";
+    private static final String ROLES = "USER";
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    private String algorithm;
+
+    private JwtTokenFactory tokenFactory;
+    private OpaqueTokenGenerator opaqueTokenGenerator;
+
+    @Setup
+    public void setUp() throws Exception {
+        JwtSigningAlgorithm signingAlgorithm = JwtSigningAlgorithm.fromConfig(algorithm);
+        VerifiedTokenCache cache = new VerifiedTokenCache(false, 1, Duration.ofMinutes(5), Clock.systemUTC(), new SimpleMeterRegistry());
+        JwtKeyManager keyManager = BenchmarkKeys.keyManager(BenchmarkKeys.writeKeyPair(signingAlgorithm), signingAlgorithm, cache);
+        keyManager.initialize();
+        tokenFactory = BenchmarkKeys.tokenFactory(keyManager);
+        opaqueTokenGenerator = new OpaqueTokenGenerator();
+    }
+
+    @Benchmark
+    public void signedRefresh(Blackhole blackhole) throws NoSuchAlgorithmException {
+        String familyId = UUID.randomUUID().toString();
+        blackhole.consume(tokenFactory.createAccessToken(USER_ID, EMAIL, ROLES));
+        String refreshToken = tokenFactory.createRefreshToken(USER_ID, familyId);
+        blackhole.consume(hash(refreshToken));
+    }
+
+    @Benchmark
+    public void opaqueRefresh(Blackhole blackhole) throws NoSuchAlgorithmException {
+        // The family id is still drawn; only the row carries it
+        blackhole.consume(UUID.randomUUID().toString());
+        blackhole.consume(tokenFactory.createAccessToken(USER_ID, EMAIL, ROLES));
+        String refreshToken = opaqueTokenGenerator.generate();
+        blackhole.consume(hash(refreshToken));
+    }
+
+    private static String hash(String token) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RefreshTokenIssuanceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,63 @@
+package com.useronboard.service.benchmark;
+
+import com.useronboard.service.security.JwtSigningAlgorithm;
+import com.useronboard.service.security.JwtUtil;
+import com.useronboard.service.security.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify throughput of access tokens for each supported security.jwt.algorithm
+ * sign is the JwtUtil.generateAccessToken step of AuthService.login; verify is the per-request check
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SigningAlgorithmBenchmark {
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    private String algorithm;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        JwtSigningAlgorithm signingAlgorithm = JwtSigningAlgorithm.fromConfig(algorithm);
+        jwtUtil = BenchmarkKeys.jwtUtil(BenchmarkKeys.writeKeyPair(signingAlgorithm), signingAlgorithm, false);
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateAccessToken("2f1c7d0e-5b8a-4b7f-9d55-0c1f4a1e9b21", "jane.doe@example.com", "USER");
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtUtil.verifyToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SigningAlgorithmBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,112 @@
+package com.useronboard.service.benchmark;
+
+import com.useronboard.service.security.JwtKeyManager;
+import com.useronboard.service.security.JwtKeyRing;
+import com.useronboard.service.security.JwtSigningAlgorithm;
+import com.useronboard.service.security.JwtTokenFactory;
+import com.useronboard.service.security.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access-token issuance cost on the login/refresh path
+ *
+ * legacyBuilder reproduces the previous JwtUtil.generateAccessToken: a claims HashMap, the
+ * "15m" expiry string parsed through LocalDateTime on every call, and the generic jjwt builder.
+ * tokenFactory is the current JwtTokenFactory path. Both produce equivalent signed tokens.
+ *
+ * Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.useronboard.service.benchmark.TokenIssuanceBenchmark
+ * Pass -prof gc to the JMH runner to compare allocation per token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenIssuanceBenchmark {
+
+    private static final String USER_ID = "2f1c7d0e-5b8a-4b7f-9d55-0c1f4a1e9b21";
+    private static final String EMAIL = "jane.doe@example.com";
+    private static final String ROLES = "USER,ADMIN";
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    private String algorithm;
+
+    private JwtKeyManager keyManager;
+    private JwtTokenFactory tokenFactory;
+
+    @Setup
+    public void setUp() throws Exception {
+        JwtSigningAlgorithm signingAlgorithm = JwtSigningAlgorithm.fromConfig(algorithm);
+        VerifiedTokenCache cache = new VerifiedTokenCache(false, 1, Duration.ofMinutes(5), Clock.systemUTC(), new SimpleMeterRegistry());
+        keyManager = BenchmarkKeys.keyManager(BenchmarkKeys.writeKeyPair(signingAlgorithm), signingAlgorithm, cache);
+        keyManager.initialize();
+        tokenFactory = BenchmarkKeys.tokenFactory(keyManager);
+    }
+
+    @Benchmark
+    public String legacyBuilder() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("email", EMAIL);
+        claims.put("roles", ROLES);
+        claims.put("type", "access");
+
+        JwtKeyRing ring = keyManager.getKeyRing();
+        return Jwts.builder()
+                .header().keyId(ring.getActiveKid()).and()
+                .claims(claims)
+                .subject(USER_ID)
+                .issuedAt(new Date())
+                .expiration(legacyExpirationDate("15m"))
+                .signWith(ring.getSigningKey(), ring.getAlgorithm().getJwsAlgorithm())
+                .compact();
+    }
+
+    @Benchmark
+    public String tokenFactory() {
+        return tokenFactory.createAccessToken(USER_ID, EMAIL, ROLES);
+    }
+
+    private static Date legacyExpirationDate(String duration) {
+        LocalDateTime expiration = LocalDateTime.now();
+        if (duration.endsWith("m")) {
+            expiration = expiration.plusMinutes(Integer.parseInt(duration.substring(0, duration.length() - 1)));
+        } else if (duration.endsWith("h")) {
+            expiration = expiration.plusHours(Integer.parseInt(duration.substring(0, duration.length() - 1)));
+        } else if (duration.endsWith("d")) {
+            expiration = expiration.plusDays(Integer.parseInt(duration.substring(0, duration.length() - 1)));
+        }
+        return Date.from(expiration.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenIssuanceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.useronboard.service.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.useronboard.service.dto.AdminActionRequest;
+import com.useronboard.service.entity.UserStatus;
+import com.useronboard.service.exception.InvalidUserStateException;
+import com.useronboard.service.exception.UserNotFoundException;
+import com.useronboard.service.security.FailedLoginTracker;
+import com.useronboard.service.security.JwtRequestFilter;
+import com.useronboard.service.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Role checks live in SecurityConfig, outside this slice; here the ApiExceptionHandler mappings are under test
+@WebMvcTest(AdminController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private FailedLoginTracker failedLoginTracker;
+
+    @MockBean
+    private JwtRequestFilter jwtRequestFilter;
+
+    @MockBean
+    private JpaMetamodelMappingContext jpaMappingContext;
+
+    @BeforeEach
+    void setUp() {
+        // The principal JwtRequestFilter would set: the admin's user id
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("admin-123", null, "ROLE_ADMIN"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void approveUser_UnknownUser_ReturnsNotFound() throws Exception {
+        // Arrange
+        when(userService.approveUser(eq("missing-user"), eq("admin-123"), anyString()))
+            .thenThrow(new UserNotFoundException("missing-user"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/admin/users/missing-user/approve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AdminActionRequest("APPROVE", "Looks good"))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value("User not found: missing-user"));
+    }
+
+    @Test
+    void approveUser_UserNotPending_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(userService.approveUser(eq("user-123"), eq("admin-123"), anyString()))
+            .thenThrow(new InvalidUserStateException(UserStatus.PENDING, UserStatus.ACTIVE));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/admin/users/user-123/approve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AdminActionRequest("APPROVE", "Looks good"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value("User is not in PENDING status. Current status: ACTIVE"));
+    }
+
+    @Test
+    void rejectUser_UnknownUser_ReturnsNotFound() throws Exception {
+        // Arrange
+        when(userService.rejectUser(eq("missing-user"), eq("admin-123"), anyString()))
+            .thenThrow(new UserNotFoundException("missing-user"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/admin/users/missing-user/reject")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AdminActionRequest("REJECT", "Spam"))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("User not found: missing-user"));
+    }
+}
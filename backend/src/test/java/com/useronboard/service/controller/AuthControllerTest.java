@@ -1,100 +1,399 @@
 package com.useronboard.service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.useronboard.service.dto.AuthResponse;
+import com.useronboard.service.dto.LoginRequest;
 import com.useronboard.service.dto.UserRegistrationRequest;
+import com.useronboard.service.dto.UserResponse;
+import com.useronboard.service.entity.User;
 import com.useronboard.service.entity.UserStatus;
+import com.useronboard.service.exception.AccountNotActiveException;
+import com.useronboard.service.exception.BreachedPasswordException;
+import com.useronboard.service.exception.DisposableEmailDomainException;
+import com.useronboard.service.exception.EmailAlreadyRegisteredException;
+import com.useronboard.service.exception.InvalidCredentialsException;
+import com.useronboard.service.exception.InvalidTokenException;
+import com.useronboard.service.security.FailedLoginTracker;
+import com.useronboard.service.security.JwtRequestFilter;
+import com.useronboard.service.security.LoginThrottle;
+import com.useronboard.service.security.PasswordHashingExecutor;
+import com.useronboard.service.service.AuthService;
+import com.useronboard.service.service.RefreshCoalescer;
 import com.useronboard.service.service.UserService;
+import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
-import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+// Security filters are covered by JwtRequestFilterTest; here the controller and ApiExceptionHandler are under test
 @WebMvcTest(AuthController.class)
+@AutoConfigureMockMvc(addFilters = false)
 class AuthControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockBean
     private UserService userService;
 
-    @Autowired
-    private ObjectMapper objectMapper;
+    @MockBean
+    private AuthService authService;
+
+    @MockBean
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @MockBean
+    private LoginThrottle loginThrottle;
+
+    @MockBean
+    private RefreshCoalescer refreshCoalescer;
+
+    @MockBean
+    private FailedLoginTracker failedLoginTracker;
+
+    // Picked up as a servlet filter component; it needs the whole JWT stack
+    @MockBean
+    private JwtRequestFilter jwtRequestFilter;
+
+    // @EnableJpaAuditing on the application class needs a mapping context
+    @MockBean
+    private JpaMetamodelMappingContext jpaMappingContext;
 
     @Test
     void registerUser_ValidRequest_ReturnsCreated() throws Exception {
         // Arrange
-        UserRegistrationRequest request = new UserRegistrationRequest();
-        request.setEmail("test@example.com");
-        request.setPassword("password123");
-        request.setFirstName("John");
-        request.setLastName("Doe");
-
-        // Mock service response
-        when(userService.registerUser(any())).thenReturn(createMockUserResponse());
+        UserRegistrationRequest request = registrationRequest("test@example.com");
+        when(passwordHashingExecutor.encode("password123")).thenReturn(CompletableFuture.completedFuture("{bcrypt}hash"));
+        when(userService.registerUser(any(), eq("{bcrypt}hash"))).thenReturn(createMockUserResponse());
 
-        // Act & Assert
-        mockMvc.perform(post("/api/v1/auth/register")
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/v1/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(request))
-                .with(csrf()))
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data.email").value("test@example.com"))
                 .andExpect(jsonPath("$.data.status").value("PENDING"));
+        verify(userService).checkRegistration(any());
     }
 
     @Test
     void registerUser_InvalidEmail_ReturnsBadRequest() throws Exception {
         // Arrange
-        UserRegistrationRequest request = new UserRegistrationRequest();
-        request.setEmail("invalid-email");
-        request.setPassword("password123");
-        request.setFirstName("John");
-        request.setLastName("Doe");
+        UserRegistrationRequest request = registrationRequest("invalid-email");
 
         // Act & Assert
         mockMvc.perform(post("/api/v1/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(request))
-                .with(csrf()))
+                .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
+        verifyNoInteractions(userService, passwordHashingExecutor);
     }
 
     @Test
-    void registerUser_DuplicateEmail_ReturnsConflict() throws Exception {
+    void registerUser_DuplicateEmail_ReturnsConflictWithoutHashing() throws Exception {
         // Arrange
-        UserRegistrationRequest request = new UserRegistrationRequest();
-        request.setEmail("existing@example.com");
-        request.setPassword("password123");
-        request.setFirstName("John");
-        request.setLastName("Doe");
+        UserRegistrationRequest request = registrationRequest("existing@example.com");
+        doThrow(new EmailAlreadyRegisteredException("existing@example.com")).when(userService).checkRegistration(any());
 
-        when(userService.registerUser(any())).thenThrow(
-            new IllegalArgumentException("User with email existing@example.com already exists")
-        );
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value("User with email existing@example.com already exists"));
+        verifyNoInteractions(passwordHashingExecutor);
+    }
+
+    @Test
+    void registerUser_DuplicateOnInsert_ReturnsConflict() throws Exception {
+        // Arrange - a concurrent registration won the unique index after the check passed
+        UserRegistrationRequest request = registrationRequest("racing@example.com");
+        when(passwordHashingExecutor.encode("password123")).thenReturn(CompletableFuture.completedFuture("{bcrypt}hash"));
+        when(userService.registerUser(any(), anyString())).thenThrow(new DataIntegrityViolationException("uk_users_email"));
+
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/v1/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void registerUser_BreachedPassword_ReturnsBadRequest() throws Exception {
+        // Arrange
+        doThrow(new BreachedPasswordException()).when(userService).checkRegistration(any());
 
         // Act & Assert
         mockMvc.perform(post("/api/v1/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(request))
-                .with(csrf()))
-                .andExpected(status().isConflict())
-                .andExpected(jsonPath("$.success").value(false))
-                .andExpected(jsonPath("$.error").exists());
+                .content(objectMapper.writeValueAsString(registrationRequest("test@example.com"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value(
+                    "This password has appeared in a data breach. Please choose a different password."));
+        verifyNoInteractions(passwordHashingExecutor);
+    }
+
+    @Test
+    void registerUser_DisposableDomain_ReturnsBadRequest() throws Exception {
+        // Arrange
+        doThrow(new DisposableEmailDomainException()).when(userService).checkRegistration(any());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registrationRequest("test@mailinator.com"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value(
+                    "Disposable email addresses are not accepted. Please register with a permanent address."));
+        verifyNoInteractions(passwordHashingExecutor);
+    }
+
+    @Test
+    void registerUser_DomainExceptionAfterHashing_IsMappedByHandler() throws Exception {
+        // Arrange - thrown on the completion thread and rethrown from handle(...)
+        when(passwordHashingExecutor.encode("password123")).thenReturn(CompletableFuture.completedFuture("{bcrypt}hash"));
+        when(userService.registerUser(any(), anyString())).thenThrow(new EmailAlreadyRegisteredException("test@example.com"));
+
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/v1/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registrationRequest("test@example.com"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value("User with email test@example.com already exists"));
+    }
+
+    @Test
+    void registerUser_HashingQueueFull_Returns503WithRetryAfter() throws Exception {
+        // Arrange
+        UserRegistrationRequest request = registrationRequest("test@example.com");
+        when(passwordHashingExecutor.encode(anyString())).thenThrow(new RejectedExecutionException());
+        when(passwordHashingExecutor.getRetryAfter()).thenReturn(Duration.ofSeconds(3));
+
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/v1/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"))
+                .andExpect(jsonPath("$.success").value(false));
+        verify(userService, never()).registerUser(any(), anyString());
+    }
+
+    @Test
+    void loginUser_ValidCredentials_ReturnsTokensAndRefreshCookie() throws Exception {
+        // Arrange
+        User user = activeUser();
+        when(userService.findLoginCandidate("test@example.com")).thenReturn(Optional.of(user));
+        when(passwordHashingExecutor.matches("password123", "{bcrypt}hash")).thenReturn(CompletableFuture.completedFuture(true));
+        AuthResponse authResponse = new AuthResponse("access-token", 900, createMockUserResponse());
+        authResponse.setRefreshToken("refresh-token");
+        when(authService.login(user, "password123", true)).thenReturn(authResponse);
+
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("test@example.com", "password123"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.accessToken").value("access-token"))
+                .andExpect(header().string(HttpHeaders.SET_COOKIE, containsString("refreshToken=refresh-token")))
+                .andExpect(header().string(HttpHeaders.SET_COOKIE, containsString("HttpOnly")));
+    }
+
+    @Test
+    void loginUser_UnknownEmail_ReturnsUnauthorized() throws Exception {
+        // Arrange
+        when(userService.findLoginCandidate("unknown@example.com")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("unknown@example.com", "password123"))))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value("Invalid credentials"));
+        verify(failedLoginTracker).recordFailure(eq("unknown@example.com"), anyString());
+        verifyNoInteractions(passwordHashingExecutor);
+    }
+
+    @Test
+    void loginUser_WrongPassword_ReturnsUnauthorizedAndRecordsFailure() throws Exception {
+        // Arrange - rethrown from the async handle(...) path
+        User user = activeUser();
+        when(userService.findLoginCandidate("test@example.com")).thenReturn(Optional.of(user));
+        when(passwordHashingExecutor.matches("wrong", "{bcrypt}hash")).thenReturn(CompletableFuture.completedFuture(false));
+        when(authService.login(user, "wrong", false)).thenThrow(new InvalidCredentialsException());
+
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("test@example.com", "wrong"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value("Invalid credentials"))
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE));
+        verify(failedLoginTracker).recordFailure(eq("test@example.com"), anyString());
+    }
+
+    @Test
+    void loginUser_AccountNotActive_ReturnsForbidden() throws Exception {
+        // Arrange
+        User user = activeUser();
+        user.setStatus(UserStatus.PENDING);
+        when(userService.findLoginCandidate("test@example.com")).thenReturn(Optional.of(user));
+        when(passwordHashingExecutor.matches("password123", "{bcrypt}hash")).thenReturn(CompletableFuture.completedFuture(true));
+        when(authService.login(user, "password123", true)).thenThrow(new AccountNotActiveException(UserStatus.PENDING));
+
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("test@example.com", "password123"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert - a correct password on an inactive account is not a failed login
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value("User account is not active. Status: PENDING"));
+        verifyNoInteractions(failedLoginTracker);
+    }
+
+    @Test
+    void loginUser_HashingQueueFull_Returns503WithRetryAfter() throws Exception {
+        // Arrange
+        User user = activeUser();
+        when(userService.findLoginCandidate("test@example.com")).thenReturn(Optional.of(user));
+        when(passwordHashingExecutor.matches(anyString(), anyString())).thenThrow(new RejectedExecutionException());
+        when(passwordHashingExecutor.getRetryAfter()).thenReturn(Duration.ofMillis(500));
+
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("test@example.com", "password123"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert - never less than one second
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.success").value(false));
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    void loginUser_Throttled_Returns429BeforeAnyLookup() throws Exception {
+        // Arrange
+        when(loginThrottle.acquire(eq("test@example.com"), anyString())).thenReturn(30L);
+
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("test@example.com", "password123"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"));
+        verifyNoInteractions(userService, passwordHashingExecutor, authService);
+    }
+
+    @Test
+    void refreshToken_InvalidToken_ReturnsUnauthorizedAndClearsCookie() throws Exception {
+        // Arrange
+        when(refreshCoalescer.refresh("stale-token")).thenThrow(new InvalidTokenException());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/auth/refresh").cookie(new Cookie("refreshToken", "stale-token")))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value("Invalid refresh token"))
+                .andExpect(cookie().maxAge("refreshToken", 0));
+    }
+
+    private static UserRegistrationRequest registrationRequest(String email) {
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setEmail(email);
+        request.setPassword("password123");
+        request.setFirstName("John");
+        request.setLastName("Doe");
+        return request;
+    }
+
+    private static User activeUser() {
+        User user = new User("test@example.com", "{bcrypt}hash", "John", "Doe");
+        user.setId("user-123");
+        user.setStatus(UserStatus.ACTIVE);
+        return user;
     }
 
-    private com.useronboard.service.dto.UserResponse createMockUserResponse() {
-        return new com.useronboard.service.dto.UserResponse(
+    private static UserResponse createMockUserResponse() {
+        return new UserResponse(
             "user-123",
             "test@example.com",
             "John",
@@ -102,8 +401,8 @@ class AuthControllerTest {
             null,
             "USER",
             UserStatus.PENDING,
-            java.time.LocalDateTime.now(),
-            java.time.LocalDateTime.now()
+            LocalDateTime.now(),
+            LocalDateTime.now()
         );
     }
 }
@@ -0,0 +1,150 @@
+package com.useronboard.service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessTokenDenylistTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void revokeToken_RejectsThatTokenUntilItExpires() {
+        // Arrange
+        MutableClock clock = new MutableClock(NOW);
+        AccessTokenDenylist denylist = denylist(null, 64, clock);
+        VerifiedToken revoked = token("user-1", "jti-1", NOW, NOW.plusSeconds(900));
+        VerifiedToken other = token("user-1", "jti-2", NOW, NOW.plusSeconds(900));
+
+        // Act
+        denylist.revokeToken("jti-1", revoked.getExpiresAt());
+
+        // Assert
+        assertTrue(denylist.isRevoked(revoked));
+        assertFalse(denylist.isRevoked(other));
+        clock.set(NOW.plusSeconds(901));
+        assertFalse(denylist.isRevoked(revoked));
+    }
+
+    @Test
+    void revokeUser_RejectsOnlyTokensIssuedBefore() {
+        // Arrange
+        AccessTokenDenylist denylist = denylist(null, 64, new MutableClock(NOW));
+
+        // Act
+        denylist.revokeUser("user-1", NOW);
+
+        // Assert
+        assertTrue(denylist.isRevoked(token("user-1", "a", NOW.minusSeconds(60), NOW.plusSeconds(840))));
+        assertFalse(denylist.isRevoked(token("user-1", "b", NOW, NOW.plusSeconds(900))));
+        assertFalse(denylist.isRevoked(token("user-2", "c", NOW.minusSeconds(60), NOW.plusSeconds(840))));
+    }
+
+    @Test
+    void revocations_SurviveReopeningTheFile() {
+        // Arrange
+        Path file = tempDir.resolve("denylist.bin");
+        MutableClock clock = new MutableClock(NOW);
+        AccessTokenDenylist first = denylist(file, 64, clock);
+        first.revokeToken("jti-1", NOW.plusSeconds(900));
+        first.revokeUser("user-2", NOW);
+        first.flush();
+
+        // Act
+        AccessTokenDenylist reopened = denylist(file, 64, clock);
+
+        // Assert
+        assertTrue(reopened.isRevoked(token("user-1", "jti-1", NOW, NOW.plusSeconds(900))));
+        assertTrue(reopened.isRevoked(token("user-2", "x", NOW.minusSeconds(1), NOW.plusSeconds(899))));
+    }
+
+    @Test
+    void manyRevocations_GrowTheTableWithoutLosingEntries() {
+        // Arrange
+        Path file = tempDir.resolve("denylist.bin");
+        AccessTokenDenylist denylist = denylist(file, 64, new MutableClock(NOW));
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            denylist.revokeToken("jti-" + i, NOW.plusSeconds(900));
+        }
+
+        // Assert
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(denylist.isRevoked(token("user-1", "jti-" + i, NOW, NOW.plusSeconds(900))), "jti-" + i);
+        }
+        assertFalse(denylist.isRevoked(token("user-1", "jti-1000", NOW, NOW.plusSeconds(900))));
+        assertTrue(denylist(file, 64, new MutableClock(NOW))
+                .isRevoked(token("user-1", "jti-999", NOW, NOW.plusSeconds(900))));
+    }
+
+    @Test
+    void expiredEntries_FreeTheirSlots() {
+        // Arrange
+        MutableClock clock = new MutableClock(NOW);
+        AccessTokenDenylist denylist = denylist(null, 64, clock);
+
+        // Act - many generations of short-lived revocations in a small table
+        for (int generation = 0; generation < 50; generation++) {
+            Instant expiresAt = clock.instant().plusSeconds(10);
+            for (int i = 0; i < 20; i++) {
+                denylist.revokeToken("jti-" + generation + "-" + i, expiresAt);
+            }
+            clock.set(expiresAt.plusSeconds(1));
+        }
+
+        // Assert
+        denylist.revokeToken("last", clock.instant().plusSeconds(10));
+        assertTrue(denylist.isRevoked(token("user-1", "last", clock.instant(), clock.instant().plusSeconds(10))));
+        assertFalse(denylist.isRevoked(token("user-1", "jti-0-0", NOW, NOW.plusSeconds(10))));
+    }
+
+    private static AccessTokenDenylist denylist(Path file, int capacity, Clock clock) {
+        return new AccessTokenDenylist(true, file != null ? file.toString() : "", capacity,
+                Duration.ofMinutes(15), clock, new SimpleMeterRegistry());
+    }
+
+    private static VerifiedToken token(String userId, String tokenId, Instant issuedAt, Instant expiresAt) {
+        return new VerifiedToken(userId, userId + "@example.com", "USER", tokenId, issuedAt, expiresAt);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private final AtomicReference<Instant> now;
+
+        MutableClock(Instant now) {
+            this.now = new AtomicReference<>(now);
+        }
+
+        void set(Instant instant) {
+            now.set(instant);
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+
+        @Override
+        public java.time.ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
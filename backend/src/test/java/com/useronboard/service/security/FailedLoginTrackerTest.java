@@ -0,0 +1,48 @@
+package com.useronboard.service.security;
+
+import com.useronboard.service.util.HeavyHitters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FailedLoginTrackerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FailedLoginTracker tracker = new FailedLoginTracker(true, 5, 1024, 4, 0.5, meterRegistry);
+
+    @Test
+    void recordFailure_RanksEmailsAndIpsSeparately() {
+        // Act
+        for (int i = 0; i < 6; i++) {
+            tracker.recordFailure(i % 2 == 0 ? "Jane@Example.com " : "jane@example.com", "203.0.113.7");
+        }
+        tracker.recordFailure("bob@example.com", "198.51.100.2");
+
+        // Assert
+        assertEquals(List.of(new HeavyHitters.Entry("jane@example.com", 6), new HeavyHitters.Entry("bob@example.com", 1)),
+                tracker.topEmails());
+        assertEquals("203.0.113.7", tracker.topIps().get(0).key());
+        assertEquals(6, tracker.ipFailures("203.0.113.7"));
+        assertEquals(7, meterRegistry.get("auth.login.failures").counter().count());
+        assertEquals(6, meterRegistry.get("auth.login.failures.top").tags("key", "email", "rank", "1").gauge().value());
+        assertEquals(0, meterRegistry.get("auth.login.failures.top").tags("key", "ip", "rank", "3").gauge().value());
+    }
+
+    @Test
+    void decay_HalvesRecentCounts() {
+        // Arrange
+        for (int i = 0; i < 6; i++) {
+            tracker.recordFailure("jane@example.com", null);
+        }
+
+        // Act
+        tracker.decay();
+
+        // Assert
+        assertEquals(3, tracker.emailFailures("JANE@example.com"));
+        assertTrue(tracker.topIps().isEmpty());
+    }
+}
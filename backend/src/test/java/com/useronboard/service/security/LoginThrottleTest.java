@@ -0,0 +1,85 @@
+package com.useronboard.service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2030-01-01T00:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // 3 attempts per minute per email, 5 per minute per IP
+    private final LoginThrottle throttle = new LoginThrottle(true, 3, Duration.ofMinutes(1), 5, Duration.ofMinutes(1),
+            1000, Duration.ofMinutes(15), clock, meterRegistry);
+
+    @Test
+    void acquire_EmailBurstExhausted_RejectsUntilRefill() {
+        // Arrange - burst of 3 for one email (case-insensitive)
+        assertEquals(0, throttle.acquire("victim@example.com", "10.0.0.1"));
+        assertEquals(0, throttle.acquire("VICTIM@example.com", "10.0.0.2"));
+        assertEquals(0, throttle.acquire("victim@example.com ", "10.0.0.3"));
+
+        // Act & Assert - one token refills every 20s
+        assertEquals(20, throttle.acquire("victim@example.com", "10.0.0.4"));
+        assertEquals(1.0, meterRegistry.get("auth.login.throttled").tag("key", "email").counter().count());
+
+        clock.advance(Duration.ofSeconds(20));
+        assertEquals(0, throttle.acquire("victim@example.com", "10.0.0.5"));
+    }
+
+    @Test
+    void acquire_SingleIpSprayingEmails_IsRejected() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, throttle.acquire("user" + i + "@example.com", "203.0.113.9"));
+        }
+
+        assertTrue(throttle.acquire("user5@example.com", "203.0.113.9") > 0);
+        assertEquals(0, throttle.acquire("user5@example.com", "198.51.100.7"));
+        assertEquals(1.0, meterRegistry.get("auth.login.throttled").tag("key", "ip").counter().count());
+    }
+
+    @Test
+    void acquire_Disabled_AlwaysAllows() {
+        LoginThrottle disabled = new LoginThrottle(false, 1, Duration.ofMinutes(1), 1, Duration.ofMinutes(1),
+                1000, Duration.ofMinutes(15), clock, new SimpleMeterRegistry());
+
+        assertEquals(0, disabled.acquire("a@example.com", "10.0.0.1"));
+        assertEquals(0, disabled.acquire("a@example.com", "10.0.0.1"));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
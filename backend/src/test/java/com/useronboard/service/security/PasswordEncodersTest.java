@@ -0,0 +1,45 @@
+package com.useronboard.service.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordEncodersTest {
+
+    @Test
+    void delegating_LegacyUnprefixedHash_MatchesAndNeedsUpgrade() {
+        // Arrange - hash as stored before {id} prefixes
+        String legacyHash = new BCryptPasswordEncoder(4).encode("password123");
+        PasswordEncoder encoder = PasswordEncoders.delegating(PasswordEncoders.BCRYPT, 5, 8192, 1, 1);
+
+        // Act & Assert
+        assertTrue(encoder.matches("password123", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    void delegating_LowerBcryptCost_NeedsUpgrade() {
+        PasswordEncoder current = PasswordEncoders.delegating(PasswordEncoders.BCRYPT, 5, 8192, 1, 1);
+        String oldCostHash = PasswordEncoders.delegating(PasswordEncoders.BCRYPT, 4, 8192, 1, 1).encode("password123");
+
+        assertTrue(oldCostHash.startsWith("{bcrypt}"));
+        assertTrue(current.matches("password123", oldCostHash));
+        assertTrue(current.upgradeEncoding(oldCostHash));
+        assertFalse(current.upgradeEncoding(current.encode("password123")));
+    }
+
+    @Test
+    void delegating_SwitchToArgon2_VerifiesBcryptAndUpgrades() {
+        PasswordEncoder argon2 = PasswordEncoders.delegating(PasswordEncoders.ARGON2, 4, 8192, 1, 1);
+        String bcryptHash = PasswordEncoders.delegating(PasswordEncoders.BCRYPT, 4, 8192, 1, 1).encode("password123");
+
+        assertTrue(argon2.matches("password123", bcryptHash));
+        assertTrue(argon2.upgradeEncoding(bcryptHash));
+
+        String argon2Hash = argon2.encode("password123");
+        assertTrue(argon2Hash.startsWith("{argon2}"));
+        assertTrue(argon2.matches("password123", argon2Hash));
+    }
+}
@@ -0,0 +1,82 @@
+package com.useronboard.service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService completion = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "completion"));
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(new BCryptPasswordEncoder(4),
+            1, 1, Duration.ofSeconds(2), completion, meterRegistry);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdown();
+        completion.shutdownNow();
+    }
+
+    @Test
+    void matches_CompletesOffTheHashingPool() throws Exception {
+        // Arrange
+        String hash = executor.encode("password123").get(5, TimeUnit.SECONDS);
+
+        // Act - a dependent stage stands in for the database work that follows a login's hash check
+        String continuedOn = executor.matches("password123", hash)
+                .thenApply(matches -> matches + "@" + Thread.currentThread().getName())
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals("true@completion", continuedOn);
+        assertEquals(2, meterRegistry.get("password.hashing.duration").timer().count());
+    }
+
+    @Test
+    void submit_QueueFull_RejectsAndCounts() throws Exception {
+        // Arrange - one task running, one queued
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = executor.submit(() -> await(release));
+        CompletableFuture<String> queued = executor.submit(() -> await(release));
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> executor.submit(() -> "shed"));
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("password.hashing.queue.depth").gauge().value());
+
+        release.countDown();
+        assertEquals("done", running.get(5, TimeUnit.SECONDS));
+        assertEquals("done", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(2, meterRegistry.get("password.hashing.duration").timer().count());
+    }
+
+    @Test
+    void submit_WorkFailure_CompletesExceptionally() {
+        CompletableFuture<String> future = executor.submit(() -> {
+            throw new IllegalArgumentException("Invalid credentials");
+        });
+
+        Exception e = assertThrows(Exception.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    private static String await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
@@ -0,0 +1,41 @@
+package com.useronboard.service.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoleAuthoritiesTest {
+
+    private final RoleAuthorities roleAuthorities = new RoleAuthorities();
+
+    @Test
+    void forRoles_SameRolesString_ReturnsSharedImmutableList() {
+        // Act
+        List<GrantedAuthority> first = roleAuthorities.forRoles("USER, ADMIN");
+        List<GrantedAuthority> second = roleAuthorities.forRoles("USER, ADMIN");
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"), first.stream().map(GrantedAuthority::getAuthority).toList());
+        assertThrows(UnsupportedOperationException.class, () -> first.add(() -> "ROLE_OTHER"));
+    }
+
+    @Test
+    void forRoles_BlankOrMissing_IsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> roleAuthorities.forRoles(null));
+        assertThrows(IllegalArgumentException.class, () -> roleAuthorities.forRoles(" "));
+    }
+
+    @Test
+    void jwtAuthentication_PrincipalIsUserId() {
+        // Controllers resolve the current user with getPrincipal() instanceof String
+        JwtAuthentication authentication = new JwtAuthentication("user-123", "test@example.com", roleAuthorities.forRoles("USER"));
+
+        assertEquals("user-123", authentication.getPrincipal());
+        assertEquals("user-123", authentication.getName());
+        assertTrue(authentication.isAuthenticated());
+    }
+}
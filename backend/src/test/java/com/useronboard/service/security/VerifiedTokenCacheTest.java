@@ -0,0 +1,58 @@
+package com.useronboard.service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2030-01-01T00:00:00Z");
+
+    @Test
+    void get_LiveToken_IsVerifiedOnce() {
+        // Arrange
+        VerifiedTokenCache cache = cache(Clock.fixed(NOW, ZoneOffset.UTC));
+        AtomicInteger verifications = new AtomicInteger();
+        VerifiedToken token = token(NOW.plusSeconds(60));
+
+        // Act
+        cache.get("token", t -> { verifications.incrementAndGet(); return token; });
+        VerifiedToken cached = cache.get("token", t -> { verifications.incrementAndGet(); return token; });
+
+        // Assert
+        assertSame(token, cached);
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    void get_TokenPastExpOnTheClock_IsVerifiedAgain() {
+        // Arrange - the injected clock, not the wall clock, decides the token has expired
+        VerifiedTokenCache cache = cache(Clock.fixed(NOW.plusSeconds(61), ZoneOffset.UTC));
+        AtomicInteger verifications = new AtomicInteger();
+        VerifiedToken token = token(NOW.plusSeconds(60));
+
+        cache.get("token", t -> { verifications.incrementAndGet(); return token; });
+        int afterFirst = verifications.get();
+
+        // Act
+        cache.get("token", t -> { verifications.incrementAndGet(); return token; });
+
+        // Assert
+        assertTrue(verifications.get() > afterFirst);
+    }
+
+    private static VerifiedTokenCache cache(Clock clock) {
+        return new VerifiedTokenCache(true, 100, Duration.ofMinutes(5), clock, new SimpleMeterRegistry());
+    }
+
+    private static VerifiedToken token(Instant expiresAt) {
+        return new VerifiedToken("user-1", "user@example.com", "USER", "jti-1", NOW, expiresAt);
+    }
+}
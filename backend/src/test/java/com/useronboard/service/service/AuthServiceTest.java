@@ -0,0 +1,481 @@
+package com.useronboard.service.service;
+
+import com.useronboard.service.dto.AuthResponse;
+import com.useronboard.service.dto.SessionResponse;
+import com.useronboard.service.entity.RefreshToken;
+import com.useronboard.service.entity.User;
+import com.useronboard.service.entity.UserStatus;
+import com.useronboard.service.exception.InvalidTokenException;
+import com.useronboard.service.messaging.UserEventPublisher;
+import com.useronboard.service.repository.RefreshTokenFamily;
+import com.useronboard.service.repository.RefreshTokenRepository;
+import com.useronboard.service.repository.RefreshTokenWithUser;
+import com.useronboard.service.repository.UserSessionView;
+import com.useronboard.service.security.AccessTokenDenylist;
+import com.useronboard.service.security.JwtUtil;
+import com.useronboard.service.security.OpaqueTokenGenerator;
+import com.useronboard.service.security.VerifiedToken;
+import com.useronboard.service.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private RefreshTokenCache refreshTokenCache;
+
+    @Mock
+    private RefreshTokenWriteBehind refreshTokenWriteBehind;
+
+    @Mock
+    private AccessTokenDenylist accessTokenDenylist;
+
+    @Mock
+    private UserEventPublisher eventPublisher;
+
+    @Mock
+    private SessionEpochCache sessionEpochCache;
+
+    private final OpaqueTokenGenerator opaqueTokenGenerator = new OpaqueTokenGenerator();
+
+    private AuthService rotatingAuthService;
+    private AuthService staticAuthService;
+
+    @BeforeEach
+    void setUp() {
+        rotatingAuthService = new AuthService(userService, jwtUtil, refreshTokenRepository,
+                verifiedTokenCache, refreshTokenCache, refreshTokenWriteBehind, accessTokenDenylist, eventPublisher, sessionEpochCache, opaqueTokenGenerator, CLOCK, true, false, false, 10);
+        staticAuthService = new AuthService(userService, jwtUtil, refreshTokenRepository,
+                verifiedTokenCache, refreshTokenCache, refreshTokenWriteBehind, accessTokenDenylist, eventPublisher, sessionEpochCache, opaqueTokenGenerator, CLOCK, false, false, false, 10);
+
+        lenient().when(jwtUtil.verifyRefreshToken("old-token")).thenReturn(
+                Jwts.claims().subject("user-123").add("type", "refresh").add("fid", "family-1").build());
+        lenient().when(jwtUtil.getRefreshTokenExpiry()).thenReturn(Duration.ofDays(7));
+        lenient().when(jwtUtil.getAccessTokenExpiry()).thenReturn(Duration.ofMinutes(15));
+    }
+
+    @Test
+    void refreshToken_Rotation_ConsumesOldAndStoresSuccessorInSameFamily() {
+        // Arrange
+        when(refreshTokenRepository.consumeValidToken(anyString(), eq("user-123"), any())).thenReturn(1);
+        when(userService.getAuthViewById("user-123")).thenReturn(Optional.of(row(UserStatus.ACTIVE)));
+        when(jwtUtil.generateRefreshToken("user-123", "family-1")).thenReturn("new-token");
+        when(jwtUtil.generateAccessToken("user-123", "test@example.com", "USER")).thenReturn("access-token");
+
+        // Act
+        AuthResponse result = rotatingAuthService.refreshToken("old-token");
+
+        // Assert
+        assertEquals("new-token", result.getRefreshToken());
+        assertEquals("access-token", result.getAccessToken());
+        ArgumentCaptor<RefreshToken> stored = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(stored.capture());
+        assertEquals("family-1", stored.getValue().getFamilyId());
+        assertTrue(stored.getValue().isNew());
+        verify(refreshTokenRepository, never()).findValidTokenByHash(anyString(), any());
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    void refreshToken_RotationReuse_RevokesFamily() {
+        // Arrange
+        when(refreshTokenRepository.consumeValidToken(anyString(), eq("user-123"), any())).thenReturn(0);
+        when(refreshTokenRepository.revokeFamily("family-1")).thenReturn(1);
+
+        // Act
+        InvalidTokenException thrown = assertThrows(InvalidTokenException.class, () -> rotatingAuthService.refreshToken("old-token"));
+
+        // Assert - expected failures skip stack-trace capture
+        assertEquals(0, thrown.getStackTrace().length);
+        verify(refreshTokenRepository).revokeFamily("family-1");
+        verify(refreshTokenRepository, never()).save(any());
+        verify(userService, never()).getAuthViewById(anyString());
+    }
+
+    @Test
+    void refreshToken_RotationInvalidSignature_TouchesNoRows() {
+        // Arrange
+        when(jwtUtil.verifyRefreshToken("forged")).thenThrow(new MalformedJwtException("bad"));
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> rotatingAuthService.refreshToken("forged"));
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    void refreshToken_StaticModeCacheHit_NeedsNoDatabaseRoundTrip() {
+        // Arrange
+        RefreshTokenWithUser row = row(UserStatus.ACTIVE);
+        when(refreshTokenCache.get(anyString(), any())).thenReturn(new RefreshTokenCache.Entry(row, row.getExpiresAt(), false));
+        when(jwtUtil.generateAccessToken("user-123", "test@example.com", "USER")).thenReturn("access-token");
+
+        // Act
+        AuthResponse result = staticAuthService.refreshToken("old-token");
+
+        // Assert
+        assertEquals("old-token", result.getRefreshToken());
+        assertEquals("test@example.com", result.getUser().getEmail());
+        verifyNoInteractions(userService, refreshTokenRepository);
+    }
+
+    @Test
+    void refreshToken_StaticModeCacheMiss_ReadsTokenAndUserInOneQuery() {
+        // Arrange
+        passThroughNearCache();
+        when(refreshTokenRepository.findValidTokenWithUser(anyString(), any())).thenReturn(Optional.of(row(UserStatus.ACTIVE)));
+        when(jwtUtil.generateAccessToken("user-123", "test@example.com", "USER")).thenReturn("access-token");
+
+        // Act
+        AuthResponse result = staticAuthService.refreshToken("old-token");
+
+        // Assert
+        assertEquals("access-token", result.getAccessToken());
+        assertEquals("user-123", result.getUser().getId());
+        verifyNoInteractions(userService);
+        verify(refreshTokenRepository, never()).findValidTokenByHash(anyString(), any());
+    }
+
+    @Test
+    void refreshToken_UserNoLongerActive_Refused() {
+        // Arrange
+        passThroughNearCache();
+        when(refreshTokenRepository.findValidTokenWithUser(anyString(), any())).thenReturn(Optional.of(row(UserStatus.REJECTED)));
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> staticAuthService.refreshToken("old-token"));
+        verify(jwtUtil, never()).generateAccessToken(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void refreshToken_Stateless_MatchingEpochNeedsNoTokenLookup() {
+        // Arrange
+        AuthService statelessAuthService = statelessAuthService();
+        when(jwtUtil.verifyRefreshToken("stateless-token")).thenReturn(statelessClaims(2));
+        when(sessionEpochCache.get(eq("user-123"), any())).thenReturn(sessionView(2));
+        when(jwtUtil.generateAccessToken("user-123", "test@example.com", "USER")).thenReturn("access-token");
+
+        // Act
+        AuthResponse result = statelessAuthService.refreshToken("stateless-token");
+
+        // Assert
+        assertEquals("access-token", result.getAccessToken());
+        assertEquals("stateless-token", result.getRefreshToken());
+        verifyNoInteractions(refreshTokenRepository, refreshTokenCache);
+    }
+
+    @Test
+    void refreshToken_Stateless_EarlierEpochRefused() {
+        // Arrange
+        AuthService statelessAuthService = statelessAuthService();
+        when(jwtUtil.verifyRefreshToken("stateless-token")).thenReturn(statelessClaims(1));
+        when(sessionEpochCache.get(eq("user-123"), any())).thenReturn(sessionView(2));
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> statelessAuthService.refreshToken("stateless-token"));
+        verify(jwtUtil, never()).generateAccessToken(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void logoutAllSessions_Stateless_BumpsEpochInsteadOfRevokingRows() {
+        // Arrange
+        AuthService statelessAuthService = statelessAuthService();
+
+        // Act
+        statelessAuthService.logoutAllSessions("user-123");
+
+        // Assert
+        verify(userService).incrementSessionEpoch("user-123");
+        verify(sessionEpochCache).evictUser("user-123");
+        verify(refreshTokenRepository, never()).revokeAllUserTokens(anyString());
+    }
+
+    @Test
+    void constructor_RotationWithStatelessRefresh_Rejected() {
+        assertThrows(IllegalStateException.class, () -> new AuthService(userService, jwtUtil, refreshTokenRepository,
+                verifiedTokenCache, refreshTokenCache, refreshTokenWriteBehind, accessTokenDenylist, eventPublisher,
+                sessionEpochCache, opaqueTokenGenerator, CLOCK, true, true, false, 10));
+    }
+
+    @Test
+    void login_SessionCapReached_RevokesOldestBeforeStoring() {
+        // Arrange
+        User account = new User("test@example.com", "hash", "Test", "User");
+        account.setStatus(UserStatus.ACTIVE);
+        when(userService.authenticateUser(account, "password", true)).thenReturn(Optional.of(account));
+        when(jwtUtil.generateRefreshToken(eq(account.getId()), anyString())).thenReturn("refresh-token");
+        when(refreshTokenRepository.revokeOldestBeyond(eq(account.getId()), eq(9L), any())).thenReturn(2);
+
+        // Act
+        rotatingAuthService.login(account, "password", true);
+
+        // Assert
+        InOrder order = inOrder(refreshTokenRepository);
+        order.verify(refreshTokenRepository).revokeOldestBeyond(eq(account.getId()), eq(9L), any());
+        order.verify(refreshTokenRepository).save(any(RefreshToken.class));
+        verify(refreshTokenCache).evictUser(account.getId());
+    }
+
+    @Test
+    void login_WriteBehind_CachesTokenOnlyAfterItsBatchCommits() {
+        // Arrange
+        User account = new User("test@example.com", "hash", "Test", "User");
+        account.setStatus(UserStatus.ACTIVE);
+        when(userService.authenticateUser(account, "password", true)).thenReturn(Optional.of(account));
+        when(jwtUtil.generateRefreshToken(eq(account.getId()), anyString())).thenReturn("refresh-token");
+        ArgumentCaptor<Runnable> onCommitted = ArgumentCaptor.forClass(Runnable.class);
+        when(refreshTokenWriteBehind.enqueue(any(RefreshToken.class), onCommitted.capture())).thenReturn(true);
+
+        // Act
+        staticAuthService.login(account, "password", true);
+
+        // Assert - nothing cached while the insert can still fail
+        verify(refreshTokenCache, never()).put(anyString(), any());
+        verify(refreshTokenRepository, never()).save(any());
+        onCommitted.getValue().run();
+        verify(refreshTokenCache).put(eq(sha256Base64("refresh-token")), any());
+    }
+
+    @Test
+    void refreshToken_QueuedToken_ServedWithoutCaching() {
+        // Arrange
+        RefreshToken queued = new RefreshToken("user-123", sha256Base64("old-token"), LocalDateTime.now(CLOCK).plusDays(7), "family-1");
+        when(refreshTokenWriteBehind.findPending(sha256Base64("old-token"))).thenReturn(queued);
+        when(userService.getAuthViewById("user-123")).thenReturn(Optional.of(row(UserStatus.ACTIVE)));
+        when(jwtUtil.generateAccessToken("user-123", "test@example.com", "USER")).thenReturn("access-token");
+
+        // Act
+        AuthResponse result = staticAuthService.refreshToken("old-token");
+
+        // Assert
+        assertEquals("access-token", result.getAccessToken());
+        verify(refreshTokenCache, never()).get(anyString(), any());
+    }
+
+    @Test
+    void login_OpaqueRefresh_StoresHashOfRandomTokenWithoutSigning() {
+        // Arrange
+        AuthService opaqueAuthService = opaqueAuthService(false);
+        User account = new User("test@example.com", "hash", "Test", "User");
+        account.setStatus(UserStatus.ACTIVE);
+        when(userService.authenticateUser(account, "password", true)).thenReturn(Optional.of(account));
+
+        // Act
+        AuthResponse first = opaqueAuthService.login(account, "password", true);
+        AuthResponse second = opaqueAuthService.login(account, "password", true);
+
+        // Assert
+        assertEquals(32, Base64.getUrlDecoder().decode(first.getRefreshToken()).length);
+        assertNotEquals(first.getRefreshToken(), second.getRefreshToken());
+        ArgumentCaptor<RefreshToken> stored = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(2)).save(stored.capture());
+        assertEquals(sha256Base64(first.getRefreshToken()), stored.getAllValues().get(0).getTokenHash());
+        verify(jwtUtil, never()).generateRefreshToken(anyString(), anyString());
+    }
+
+    @Test
+    void refreshToken_OpaqueRotationReuse_RevokesFamilyFoundByHash() {
+        // Arrange
+        AuthService opaqueAuthService = opaqueAuthService(true);
+        when(refreshTokenRepository.findFamilyByHash(sha256Base64("opaque-token"))).thenReturn(Optional.of(family("family-1")));
+        when(refreshTokenRepository.consumeValidToken(anyString(), eq("user-123"), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> opaqueAuthService.refreshToken("opaque-token"));
+        verify(refreshTokenRepository).revokeFamily("family-1");
+        verify(jwtUtil, never()).verifyRefreshToken(anyString());
+    }
+
+    @Test
+    void listSessions_NewestFirstWithCurrentMarked() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now(CLOCK);
+        RefreshToken older = new RefreshToken("user-123", "other-hash", now.plusDays(5), "family-1");
+        older.setCreatedAt(now.minusDays(2));
+        RefreshToken newer = new RefreshToken("user-123", sha256Base64("current-token"), now.plusDays(7), "family-2");
+        newer.setCreatedAt(now);
+        when(refreshTokenRepository.findValidTokensByUserId("user-123", now)).thenReturn(List.of(older, newer));
+
+        // Act
+        List<SessionResponse> sessions = staticAuthService.listSessions("user-123", "current-token");
+
+        // Assert
+        assertEquals(List.of(newer.getId(), older.getId()), sessions.stream().map(SessionResponse::getId).toList());
+        assertTrue(sessions.get(0).isCurrent());
+        assertFalse(sessions.get(1).isCurrent());
+    }
+
+    @Test
+    void logoutAllSessions_DeniesAccessTokensIssuedBeforeNow() {
+        // Arrange
+        when(refreshTokenRepository.revokeAllUserTokens("user-123")).thenReturn(2);
+
+        // Act
+        rotatingAuthService.logoutAllSessions("user-123");
+
+        // Assert
+        verify(accessTokenDenylist).revokeUser("user-123", CLOCK.instant().plusSeconds(1));
+        verify(eventPublisher).publishAllAccessTokensRevokedEvent("user-123", CLOCK.instant().plusSeconds(1));
+    }
+
+    @Test
+    void logoutAllSessions_TokenIssuedEarlierInTheSameSecond_IsDenied() {
+        // Arrange - a token signed at .300 carries iat 00:00:00; logout-all runs at .900
+        Clock logoutClock = Clock.fixed(Instant.parse("2024-01-01T00:00:00.900Z"), ZoneOffset.UTC);
+        AccessTokenDenylist denylist = new AccessTokenDenylist(true, "", 64, Duration.ofMinutes(15),
+                logoutClock, new SimpleMeterRegistry());
+        AuthService authService = new AuthService(userService, jwtUtil, refreshTokenRepository,
+                verifiedTokenCache, refreshTokenCache, refreshTokenWriteBehind, denylist, eventPublisher, sessionEpochCache, opaqueTokenGenerator, logoutClock, true, false, false, 10);
+        Instant issuedAt = Instant.parse("2024-01-01T00:00:00.300Z").truncatedTo(ChronoUnit.SECONDS);
+        VerifiedToken token = new VerifiedToken("user-123", "test@example.com", "USER", "jti-1",
+                issuedAt, issuedAt.plus(Duration.ofMinutes(15)));
+
+        // Act
+        authService.logoutAllSessions("user-123");
+
+        // Assert
+        assertTrue(denylist.isRevoked(token));
+    }
+
+    private void passThroughNearCache() {
+        when(refreshTokenCache.get(anyString(), any())).thenAnswer(invocation ->
+                invocation.<Function<String, RefreshTokenCache.Entry>>getArgument(1).apply(invocation.getArgument(0)));
+    }
+
+    private static RefreshTokenWithUser row(UserStatus status) {
+        LocalDateTime expiresAt = CLOCK.instant().atOffset(ZoneOffset.UTC).toLocalDateTime().plusDays(1);
+        return new RefreshTokenWithUser() {
+            @Override
+            public String getUserId() {
+                return "user-123";
+            }
+
+            @Override
+            public String getEmail() {
+                return "test@example.com";
+            }
+
+            @Override
+            public String getRoles() {
+                return "USER";
+            }
+
+            @Override
+            public UserStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public LocalDateTime getExpiresAt() {
+                return expiresAt;
+            }
+        };
+    }
+
+    private AuthService statelessAuthService() {
+        return new AuthService(userService, jwtUtil, refreshTokenRepository, verifiedTokenCache, refreshTokenCache,
+                refreshTokenWriteBehind, accessTokenDenylist, eventPublisher, sessionEpochCache, opaqueTokenGenerator, CLOCK, false, true, false, 10);
+    }
+
+    private AuthService opaqueAuthService(boolean rotationEnabled) {
+        return new AuthService(userService, jwtUtil, refreshTokenRepository, verifiedTokenCache, refreshTokenCache,
+                refreshTokenWriteBehind, accessTokenDenylist, eventPublisher, sessionEpochCache, opaqueTokenGenerator,
+                CLOCK, rotationEnabled, false, true, 10);
+    }
+
+    private static RefreshTokenFamily family(String familyId) {
+        return new RefreshTokenFamily() {
+            @Override
+            public String getUserId() {
+                return "user-123";
+            }
+
+            @Override
+            public String getFamilyId() {
+                return familyId;
+            }
+        };
+    }
+
+    private static Claims statelessClaims(int sessionEpoch) {
+        return Jwts.claims().subject("user-123").id("jti-1").add("type", "refresh").add("sep", sessionEpoch).build();
+    }
+
+    private static UserSessionView sessionView(int sessionEpoch) {
+        return new UserSessionView() {
+            @Override
+            public int getSessionEpoch() {
+                return sessionEpoch;
+            }
+
+            @Override
+            public String getUserId() {
+                return "user-123";
+            }
+
+            @Override
+            public String getEmail() {
+                return "test@example.com";
+            }
+
+            @Override
+            public String getRoles() {
+                return "USER";
+            }
+
+            @Override
+            public UserStatus getStatus() {
+                return UserStatus.ACTIVE;
+            }
+        };
+    }
+
+    private static String sha256Base64(String value) {
+        try {
+            return Base64.getEncoder().encodeToString(
+                    MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.useronboard.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DisposableDomainBlocklistTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void isDisposable_CountsHits() throws Exception {
+        // Arrange
+        Path file = Files.writeString(tempDir.resolve("domains.txt"), "mailinator.com\n");
+        DisposableDomainBlocklist blocklist = new DisposableDomainBlocklist(file.toString(), false, meterRegistry);
+
+        // Act
+        boolean blocked = blocklist.isDisposable("bot@mailinator.com");
+        boolean allowed = blocklist.isDisposable("jane@example.com");
+
+        // Assert
+        assertTrue(blocked);
+        assertFalse(allowed);
+        assertEquals(1, meterRegistry.get("auth.registration.disposable.blocked").counter().count());
+        assertEquals(1, meterRegistry.get("auth.registration.disposable.domains").gauge().value());
+    }
+
+    @Test
+    void reload_SwapsInTheNewListAndKeepsTheOldOneWhenEmpty() throws Exception {
+        // Arrange
+        Path file = Files.writeString(tempDir.resolve("domains.txt"), "mailinator.com\n");
+        DisposableDomainBlocklist blocklist = new DisposableDomainBlocklist(file.toString(), false, meterRegistry);
+
+        // Act & Assert
+        Files.writeString(file, "yopmail.com\ntrashmail.de\n");
+        blocklist.reload();
+        assertFalse(blocklist.isDisposable("bot@mailinator.com"));
+        assertTrue(blocklist.isDisposable("bot@yopmail.com"));
+
+        Files.writeString(file, "");
+        blocklist.reload();
+        assertEquals(2, blocklist.size());
+        assertEquals(1, meterRegistry.get("auth.registration.disposable.reloads").tag("result", "failure").counter().count());
+    }
+
+    @Test
+    void isDisposable_WithoutFile_IsOff() {
+        DisposableDomainBlocklist blocklist = new DisposableDomainBlocklist("", true, meterRegistry);
+
+        assertFalse(blocklist.isDisposable("bot@mailinator.com"));
+    }
+}
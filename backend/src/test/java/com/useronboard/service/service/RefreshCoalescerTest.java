@@ -0,0 +1,134 @@
+package com.useronboard.service.service;
+
+import com.useronboard.service.dto.AuthResponse;
+import com.useronboard.service.exception.InvalidTokenException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RefreshCoalescerTest {
+
+    private AuthService authService;
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        authService = mock(AuthService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RefreshCoalescer(authService, true, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    void refresh_ConcurrentCallsForOneToken_RunTheRefreshOnce() throws Exception {
+        // Arrange - the first refresh blocks until every tab is waiting on it
+        AuthResponse minted = new AuthResponse("access-token", 900, null);
+        CountDownLatch release = new CountDownLatch(1);
+        when(authService.refreshToken("token")).thenAnswer(invocation -> {
+            release.await();
+            return minted;
+        });
+        ExecutorService tabs = Executors.newFixedThreadPool(4);
+
+        // Act
+        List<Future<AuthResponse>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(tabs.submit(() -> coalescer.refresh("token")));
+        }
+        while (meterRegistry.get("auth.refresh.requests").tag("result", "coalesced").counter().count() < 3) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        // Assert
+        for (Future<AuthResponse> result : results) {
+            assertSame(minted, result.get(5, TimeUnit.SECONDS));
+        }
+        verify(authService, times(1)).refreshToken("token");
+        assertEquals(0.75, meterRegistry.get("auth.refresh.coalescing.ratio").gauge().value());
+        tabs.shutdown();
+    }
+
+    @Test
+    void refresh_WithinReuseWindow_ReturnsTheJustMintedResult() {
+        // Arrange
+        AuthResponse minted = new AuthResponse("access-token", 900, null);
+        when(authService.refreshToken("token")).thenReturn(minted);
+        coalescer.refresh("token");
+
+        // Act
+        AuthResponse again = coalescer.refresh("token");
+
+        // Assert
+        assertSame(minted, again);
+        verify(authService, times(1)).refreshToken("token");
+    }
+
+    @Test
+    void refresh_FailureIsNotKept() {
+        // Arrange
+        AuthResponse minted = new AuthResponse("access-token", 900, null);
+        when(authService.refreshToken("token")).thenThrow(new InvalidTokenException()).thenReturn(minted);
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> coalescer.refresh("token"));
+        assertSame(minted, coalescer.refresh("token"));
+    }
+
+    @Test
+    void refresh_ManyTokensInFlight_NoneIsDroppedBeforeItCompletes() throws Exception {
+        // Arrange - more concurrent refreshes than any former size bound would hold
+        int tokens = 200;
+        CountDownLatch release = new CountDownLatch(1);
+        when(authService.refreshToken(anyString())).thenAnswer(invocation -> {
+            release.await();
+            return new AuthResponse("access-" + invocation.getArgument(0), 900, null);
+        });
+        ExecutorService tabs = Executors.newFixedThreadPool(2 * tokens);
+
+        // Act - two tabs per token
+        List<Future<AuthResponse>> results = new ArrayList<>();
+        for (int i = 0; i < 2 * tokens; i++) {
+            String token = "token-" + (i % tokens);
+            results.add(tabs.submit(() -> coalescer.refresh(token)));
+        }
+        while (meterRegistry.get("auth.refresh.requests").tag("result", "coalesced").counter().count() < tokens) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        // Assert
+        for (Future<AuthResponse> result : results) {
+            assertNotNull(result.get(5, TimeUnit.SECONDS));
+        }
+        verify(authService, times(tokens)).refreshToken(anyString());
+        tabs.shutdown();
+    }
+
+    @Test
+    void evict_DropsTheSharedResult() {
+        // Arrange
+        when(authService.refreshToken("token")).thenReturn(new AuthResponse("access-token", 900, null));
+        coalescer.refresh("token");
+
+        // Act
+        coalescer.evict("token");
+        coalescer.refresh("token");
+
+        // Assert
+        verify(authService, times(2)).refreshToken("token");
+    }
+}
@@ -0,0 +1,69 @@
+package com.useronboard.service.service;
+
+import com.useronboard.service.entity.UserStatus;
+import com.useronboard.service.messaging.RefreshTokenEvictionPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenCacheTest {
+
+    private final Clock clock = Clock.systemDefaultZone();
+    private final RefreshTokenEvictionPublisher publisher = mock(RefreshTokenEvictionPublisher.class);
+    private final RefreshTokenCache cache = new RefreshTokenCache(true, 1000, Duration.ofMinutes(10), clock,
+            publisher, new SimpleMeterRegistry());
+
+    @Test
+    void get_RepeatLookup_LoadsOnce() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        RefreshTokenCache.Entry stored = entry("user-123", LocalDateTime.now(clock).plusDays(7));
+
+        // Act
+        cache.get("hash-1", hash -> { loads.incrementAndGet(); return stored; });
+        RefreshTokenCache.Entry second = cache.get("hash-1", hash -> { loads.incrementAndGet(); return stored; });
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals(stored, second);
+    }
+
+    @Test
+    void get_UnknownToken_IsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get("missing", hash -> { loads.incrementAndGet(); return null; }));
+        assertNull(cache.get("missing", hash -> { loads.incrementAndGet(); return null; }));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictUser_RemovesUserEntriesAndBroadcasts() {
+        // Arrange
+        LocalDateTime expiresAt = LocalDateTime.now(clock).plusDays(7);
+        cache.put("hash-a", entry("user-123", expiresAt));
+        cache.put("hash-b", entry("user-123", expiresAt));
+        cache.put("hash-c", entry("user-456", expiresAt));
+
+        // Act
+        cache.evictUser("user-123");
+
+        // Assert
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("hash-a", hash -> { loads.incrementAndGet(); return null; });
+        cache.get("hash-c", hash -> { loads.incrementAndGet(); return null; });
+        assertEquals(1, loads.get());
+        verify(publisher).publishUserEviction("user-123");
+    }
+
+    private static RefreshTokenCache.Entry entry(String userId, LocalDateTime expiresAt) {
+        return new RefreshTokenCache.Entry(userId, "test@example.com", "USER", UserStatus.ACTIVE, expiresAt, false);
+    }
+}
@@ -0,0 +1,134 @@
+package com.useronboard.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshTokenPurgeJobTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-01-10T00:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDateTime NOW = LocalDateTime.now(CLOCK);
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:purge-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE refresh_tokens (id VARCHAR(36) PRIMARY KEY, user_id VARCHAR(36) NOT NULL, "
+                + "token_hash VARCHAR(255) NOT NULL, expires_at TIMESTAMP NOT NULL, created_at TIMESTAMP NOT NULL, "
+                + "revoked BOOLEAN DEFAULT FALSE NOT NULL, family_id VARCHAR(36))");
+        jdbcTemplate.execute("CREATE TABLE scheduler_leases (name VARCHAR(64) PRIMARY KEY, owner VARCHAR(128) NOT NULL, "
+                + "lease_until TIMESTAMP NOT NULL)");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void purge_DeletesExpiredInChunks() {
+        // Arrange
+        for (int i = 0; i < 25; i++) {
+            insert(NOW.minusDays(1), NOW.minusDays(8), false);     // expired
+        }
+        for (int i = 0; i < 4; i++) {
+            insert(NOW.minusDays(2), NOW.minusDays(9), true);      // revoked and expired
+        }
+        insert(NOW.plusDays(7), NOW, false);                       // live: kept
+        RefreshTokenPurgeJob job = job(new DatabaseLease(jdbcTemplate, CLOCK), 10);
+
+        // Act
+        job.purge();
+
+        // Assert
+        assertEquals(1, count());
+        assertEquals(29.0, meterRegistry.get("auth.token.purge.rows").tag("kind", "expired").counter().count());
+        // 29 expired rows at 10 per chunk take 3 chunks
+        assertEquals(3, meterRegistry.get("auth.token.purge.chunk").timer().count());
+    }
+
+    @Test
+    void purge_RevokedButUnexpired_IsKeptForReuseDetection() {
+        // Arrange - consumed by rotation days ago; a replay must still find its family
+        insert(NOW.plusDays(3), NOW.minusDays(4), true);
+        insert(NOW.plusDays(6), NOW.minusHours(1), true);
+
+        // Act
+        job(new DatabaseLease(jdbcTemplate, CLOCK), 10).purge();
+
+        // Assert
+        assertEquals(2, count());
+    }
+
+    @Test
+    void purge_LeaseHeldByAnotherNode_DeletesNothing() {
+        // Arrange
+        insert(NOW.minusDays(1), NOW.minusDays(8), false);
+        DatabaseLease otherNode = new DatabaseLease(jdbcTemplate, CLOCK);
+        assertTrue(otherNode.tryAcquire(RefreshTokenPurgeJob.LEASE_NAME, Duration.ofMinutes(10)));
+
+        // Act
+        job(new DatabaseLease(jdbcTemplate, CLOCK), 10).purge();
+
+        // Assert
+        assertEquals(1, count());
+    }
+
+    @Test
+    void lease_ReleasedOrExpired_CanBeTakenOver() {
+        // Arrange
+        DatabaseLease first = new DatabaseLease(jdbcTemplate, CLOCK);
+        DatabaseLease second = new DatabaseLease(jdbcTemplate, CLOCK);
+        DatabaseLease later = new DatabaseLease(jdbcTemplate, Clock.offset(CLOCK, Duration.ofMinutes(11)));
+
+        // Act & Assert
+        assertTrue(first.tryAcquire("job", Duration.ofMinutes(10)));
+        assertFalse(second.tryAcquire("job", Duration.ofMinutes(10)));
+        first.release("job");
+        assertTrue(second.tryAcquire("job", Duration.ofMinutes(10)));
+        assertFalse(first.tryAcquire("job", Duration.ofMinutes(10)));
+        // second never released; its lease has run out by then
+        assertTrue(later.tryAcquire("job", Duration.ofMinutes(10)));
+    }
+
+    private RefreshTokenPurgeJob job(DatabaseLease lease, int chunkSize) {
+        return new RefreshTokenPurgeJob(true, chunkSize, Duration.ZERO, Duration.ofMinutes(10),
+                jdbcTemplate, lease, CLOCK, meterRegistry);
+    }
+
+    private void insert(LocalDateTime expiresAt, LocalDateTime createdAt, boolean revoked) {
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.update("INSERT INTO refresh_tokens (id, user_id, token_hash, expires_at, created_at, revoked) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", ps -> {
+            ps.setString(1, UUID.randomUUID().toString());
+            ps.setString(2, "user-1");
+            ps.setString(3, UUID.randomUUID().toString());
+            ps.setTimestamp(4, Timestamp.valueOf(expiresAt), utc);
+            ps.setTimestamp(5, Timestamp.valueOf(createdAt), utc);
+            ps.setBoolean(6, revoked);
+        });
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens", Integer.class);
+    }
+}
@@ -0,0 +1,172 @@
+package com.useronboard.service.service;
+
+import com.useronboard.service.entity.RefreshToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshTokenWriteBehindTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:write-behind-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE refresh_tokens (id VARCHAR(36) PRIMARY KEY, user_id VARCHAR(36) NOT NULL, "
+                + "token_hash VARCHAR(255) NOT NULL, expires_at TIMESTAMP NOT NULL, created_at TIMESTAMP, "
+                + "revoked BOOLEAN DEFAULT FALSE, family_id VARCHAR(36))");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void enqueue_QueuedTokenIsVisibleUntilFlushedThenStored() {
+        // Arrange - a long flush interval keeps the token queued
+        RefreshTokenWriteBehind writeBehind = writeBehind(true, 100, Duration.ofSeconds(30), 10);
+        RefreshToken token = token("user-1", "hash-1");
+
+        // Act
+        assertTrue(writeBehind.enqueue(token));
+
+        // Assert
+        assertSame(token, writeBehind.findPending("hash-1"));
+        assertEquals(0, countRows());
+    }
+
+    @Test
+    void awaitPending_ReturnsOnceTheBatchCommitted() {
+        // Arrange
+        RefreshTokenWriteBehind writeBehind = writeBehind(true, 100, Duration.ofMillis(5), 100);
+        for (int i = 0; i < 50; i++) {
+            writeBehind.enqueue(token("user-1", "hash-" + i));
+        }
+
+        // Act
+        writeBehind.awaitPendingForUser("user-1");
+
+        // Assert
+        assertEquals(50, countRows());
+        assertNull(writeBehind.findPending("hash-0"));
+        // Group commits: fewer batches than rows
+        assertTrue(meterRegistry.get("auth.refresh.write.behind.batch.size").summary().count() < 50);
+    }
+
+    @Test
+    void enqueue_QueueFull_HandsInsertBackToCaller() throws Exception {
+        // Arrange - the writer takes one token and then blocks getting a connection
+        CountDownLatch release = new CountDownLatch(1);
+        DataSource blocking = new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getConnection();
+            }
+        };
+        RefreshTokenWriteBehind writeBehind = new RefreshTokenWriteBehind(true, 1, Duration.ofMillis(5), 1,
+                Duration.ofSeconds(5), new JdbcTemplate(blocking), new DataSourceTransactionManager(blocking), meterRegistry);
+        writeBehind.enqueue(token("user-1", "hash-1"));
+        while (meterRegistry.get("auth.refresh.write.behind.queue.depth").gauge().value() > 0) {
+            Thread.sleep(1);
+        }
+
+        // Act
+        boolean secondQueued = writeBehind.enqueue(token("user-1", "hash-2"));
+        boolean thirdQueued = writeBehind.enqueue(token("user-1", "hash-3"));
+        release.countDown();
+        writeBehind.awaitPendingForUser("user-1");
+
+        // Assert
+        assertTrue(secondQueued);
+        assertFalse(thirdQueued);
+        assertNull(writeBehind.findPending("hash-3"));
+        assertEquals(1.0, meterRegistry.get("auth.refresh.write.behind.fallback").counter().count());
+        assertEquals(2, countRows());
+    }
+
+    @Test
+    void shutdown_FlushesEverythingQueued() throws Exception {
+        // Arrange
+        RefreshTokenWriteBehind writeBehind = writeBehind(true, 1000, Duration.ofMillis(200), 1000);
+        for (int i = 0; i < 20; i++) {
+            writeBehind.enqueue(token("user-" + i, "hash-" + i));
+        }
+
+        // Act
+        writeBehind.shutdown();
+
+        // Assert
+        assertEquals(20, countRows());
+        assertFalse(writeBehind.enqueue(token("user-1", "late")));
+    }
+
+    @Test
+    void enqueue_CommittedAction_RunsOnlyWhenTheBatchCommits() {
+        // Arrange
+        RefreshTokenWriteBehind writeBehind = writeBehind(true, 100, Duration.ofMillis(5), 10);
+        AtomicInteger committed = new AtomicInteger();
+
+        // Act
+        assertTrue(writeBehind.enqueue(token("user-1", "hash-1"), committed::incrementAndGet));
+        writeBehind.awaitPending("hash-1");
+        jdbcTemplate.execute("DROP TABLE refresh_tokens");
+        assertTrue(writeBehind.enqueue(token("user-1", "hash-2"), committed::incrementAndGet));
+        writeBehind.awaitPending("hash-2");
+
+        // Assert - the failed insert must not leave a refreshable copy behind
+        assertEquals(1, committed.get());
+        assertNull(writeBehind.findPending("hash-2"));
+        assertEquals(1.0, meterRegistry.get("auth.refresh.write.behind.failed").counter().count());
+    }
+
+    @Test
+    void disabled_NeverQueues() {
+        // Arrange
+        RefreshTokenWriteBehind writeBehind = writeBehind(false, 100, Duration.ofMillis(5), 10);
+
+        // Act & Assert
+        assertFalse(writeBehind.enqueue(token("user-1", "hash-1")));
+        assertNull(writeBehind.findPending("hash-1"));
+    }
+
+    private RefreshTokenWriteBehind writeBehind(boolean enabled, int batchSize, Duration flushInterval, int capacity) {
+        return new RefreshTokenWriteBehind(enabled, batchSize, flushInterval, capacity, Duration.ofSeconds(5),
+                jdbcTemplate, new DataSourceTransactionManager(dataSource), meterRegistry);
+    }
+
+    private static RefreshToken token(String userId, String tokenHash) {
+        RefreshToken token = new RefreshToken(userId, tokenHash, LocalDateTime.now().plusDays(7), UUID.randomUUID().toString());
+        token.setCreatedAt(LocalDateTime.now());
+        return token;
+    }
+
+    private int countRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens", Integer.class);
+    }
+}
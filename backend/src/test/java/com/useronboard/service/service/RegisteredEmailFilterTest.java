@@ -0,0 +1,146 @@
+package com.useronboard.service.service;
+
+import com.useronboard.service.repository.UserRepository;
+import com.useronboard.service.util.BloomFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegisteredEmailFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void mightBeRegistered_BeforeFirstBuild_ReportsEveryEmailAsPossible() {
+        // Arrange
+        RegisteredEmailFilter filter = filter(true, 100);
+
+        // Act & Assert - no false "definitely absent" while the table has not been read
+        assertTrue(filter.mightBeRegistered("anyone@example.com"));
+        filter.add("new@example.com");
+        assertTrue(filter.mightBeRegistered("someone-else@example.com"));
+        assertEquals(0.0, meterRegistry.get("auth.email.filter.bytes").gauge().value());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void rebuild_Disabled_NeverReadsTheTable() {
+        // Arrange
+        RegisteredEmailFilter filter = filter(false, 100);
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertTrue(filter.mightBeRegistered("anyone@example.com"));
+        verifyNoInteractions(userRepository, transactionManager);
+    }
+
+    @Test
+    void rebuild_KnownAndUnknownEmails_AnswersFromTheTable() {
+        // Arrange
+        RegisteredEmailFilter filter = filter(true, 100);
+        when(userRepository.count()).thenReturn(2L);
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("a@example.com", "B@Example.com"));
+
+        // Act
+        filter.rebuild();
+
+        // Assert - matched after normalization, like the case-insensitive lookup
+        assertTrue(filter.mightBeRegistered("A@EXAMPLE.COM"));
+        assertTrue(filter.mightBeRegistered(" b@example.com"));
+        assertFalse(filter.mightBeRegistered("unknown@example.com"));
+        assertEquals(2.0, meterRegistry.get("auth.email.filter.elements").gauge().value());
+    }
+
+    @Test
+    void rebuild_SizedForTheRowCountTimesGrowthFactor() {
+        // Arrange - 10,000 rows with a growth factor of 2 outgrow the 100 minimum
+        RegisteredEmailFilter filter = filter(true, 100);
+        when(userRepository.count()).thenReturn(10_000L);
+        when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertEquals(BloomFilter.create(20_000, 0.01).bitSize() / 8.0,
+                meterRegistry.get("auth.email.filter.bytes").gauge().value());
+    }
+
+    @Test
+    void rebuild_SmallTable_SizedForTheConfiguredMinimum() {
+        // Arrange
+        RegisteredEmailFilter filter = filter(true, 50_000);
+        when(userRepository.count()).thenReturn(10L);
+        when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertEquals(BloomFilter.create(50_000, 0.01).bitSize() / 8.0,
+                meterRegistry.get("auth.email.filter.bytes").gauge().value());
+    }
+
+    @Test
+    void rebuild_RegistrationCommittedDuringTheScan_IsNotLost() {
+        // Arrange - a registration commits while the table is streamed, after its row was passed over
+        RegisteredEmailFilter filter = filter(true, 100);
+        when(userRepository.count()).thenReturn(1L);
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("existing@example.com")
+                .peek(email -> filter.add("racing@example.com")));
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertTrue(filter.mightBeRegistered("existing@example.com"));
+        assertTrue(filter.mightBeRegistered("racing@example.com"));
+        assertEquals(2.0, meterRegistry.get("auth.email.filter.elements").gauge().value());
+    }
+
+    @Test
+    void rebuild_ScanFails_KeepsThePreviousFilter() {
+        // Arrange
+        RegisteredEmailFilter filter = filter(true, 100);
+        when(userRepository.count()).thenReturn(1L);
+        when(userRepository.streamAllEmails())
+                .thenReturn(Stream.of("a@example.com"))
+                .thenThrow(new IllegalStateException("connection reset"));
+        filter.rebuild();
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertTrue(filter.mightBeRegistered("a@example.com"));
+        assertFalse(filter.mightBeRegistered("unknown@example.com"));
+    }
+
+    private RegisteredEmailFilter filter(boolean enabled, long minimumExpectedInsertions) {
+        return new RegisteredEmailFilter(userRepository, transactionManager, enabled, 0.01,
+                minimumExpectedInsertions, 2.0, meterRegistry);
+    }
+}
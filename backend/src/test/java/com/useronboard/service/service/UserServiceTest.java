@@ -4,9 +4,17 @@ import com.useronboard.service.dto.UserRegistrationRequest;
 import com.useronboard.service.dto.UserResponse;
 import com.useronboard.service.entity.User;
 import com.useronboard.service.entity.UserStatus;
+import com.useronboard.service.exception.AccountNotActiveException;
+import com.useronboard.service.exception.BreachedPasswordException;
+import com.useronboard.service.exception.DisposableEmailDomainException;
+import com.useronboard.service.exception.EmailAlreadyRegisteredException;
+import com.useronboard.service.exception.InvalidUserStateException;
+import com.useronboard.service.exception.UserNotFoundException;
 import com.useronboard.service.messaging.UserEventPublisher;
 import com.useronboard.service.repository.UserAuditLogRepository;
 import com.useronboard.service.repository.UserRepository;
+import com.useronboard.service.security.BreachedPasswordFilter;
+import com.useronboard.service.security.PasswordHashingExecutor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,8 +22,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,9 +46,27 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
     @Mock
     private UserEventPublisher eventPublisher;
 
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @Mock
+    private BreachedPasswordFilter breachedPasswordFilter;
+
+    @Mock
+    private DisposableDomainBlocklist disposableDomainBlocklist;
+
+    @Mock
+    private RefreshTokenCache refreshTokenCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private UserService userService;
 
@@ -44,6 +75,8 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(registeredEmailFilter.mightBeRegistered(anyString())).thenReturn(true);
+
         validRequest = new UserRegistrationRequest();
         validRequest.setEmail("test@example.com");
         validRequest.setPassword("password123");
@@ -62,63 +95,186 @@ class UserServiceTest {
     @Test
     void registerUser_Success() {
         // Arrange
-        when(userRepository.existsByEmailIgnoreCase(anyString())).thenReturn(false);
-        when(passwordEncoder.encode(anyString())).thenReturn("hashed-password");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // Act
-        UserResponse result = userService.registerUser(validRequest);
+        UserResponse result = userService.registerUser(validRequest, "hashed-password");
 
         // Assert
         assertNotNull(result);
         assertEquals("test@example.com", result.getEmail());
         assertEquals(UserStatus.PENDING, result.getStatus());
 
-        verify(userRepository).existsByEmailIgnoreCase("test@example.com");
-        verify(passwordEncoder).encode("password123");
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).save(argThat(user -> "hashed-password".equals(user.getPasswordHash())));
         verify(auditLogRepository).save(any());
         verify(eventPublisher).publishUserRegisteredEvent(any(User.class));
+        verify(registeredEmailFilter).add("test@example.com");
+        verifyNoInteractions(passwordEncoder, passwordHashingExecutor);
+    }
+
+    @Test
+    void registerUser_EmailAddedToFilterOnlyAfterCommit() {
+        // Arrange
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            userService.registerUser(validRequest, "hashed-password");
+
+            // Assert - a rebuild scanning now could not see the row yet
+            verify(registeredEmailFilter, never()).add(anyString());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(registeredEmailFilter).add("test@example.com");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
-    void registerUser_EmailAlreadyExists_ThrowsException() {
+    void checkRegistration_NewEmail_Passes() {
+        // Arrange
+        when(userRepository.existsByEmailIgnoreCase(anyString())).thenReturn(false);
+
+        // Act
+        userService.checkRegistration(validRequest);
+
+        // Assert
+        verify(userRepository).existsByEmailIgnoreCase("test@example.com");
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void checkRegistration_DisposableDomain_RefusedBeforeAnyDatabaseWork() {
+        // Arrange
+        when(disposableDomainBlocklist.isDisposable(validRequest.getEmail())).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(DisposableEmailDomainException.class, () -> userService.checkRegistration(validRequest));
+        verifyNoInteractions(userRepository, passwordEncoder);
+    }
+
+    @Test
+    void checkRegistration_BreachedPassword_RefusedBeforeAnyDatabaseWork() {
+        // Arrange
+        when(breachedPasswordFilter.isBreached("password123")).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(BreachedPasswordException.class, () -> userService.checkRegistration(validRequest));
+        verifyNoInteractions(userRepository, passwordEncoder);
+    }
+
+    @Test
+    void checkRegistration_EmailAlreadyExists_ThrowsException() {
         // Arrange
         when(userRepository.existsByEmailIgnoreCase(anyString())).thenReturn(true);
 
         // Act & Assert
-        IllegalArgumentException exception = assertThrows(
-            IllegalArgumentException.class,
-            () -> userService.registerUser(validRequest)
+        EmailAlreadyRegisteredException exception = assertThrows(
+            EmailAlreadyRegisteredException.class,
+            () -> userService.checkRegistration(validRequest)
         );
 
         assertEquals("User with email test@example.com already exists", exception.getMessage());
-        verify(userRepository, never()).save(any());
     }
 
     @Test
     void authenticateUser_Success() {
         // Arrange
         testUser.setStatus(UserStatus.ACTIVE);
-        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches("password123", "hashed-password")).thenReturn(true);
 
         // Act
-        Optional<User> result = userService.authenticateUser("test@example.com", "password123");
+        Optional<User> result = userService.authenticateUser(testUser, "password123", true);
 
         // Assert
         assertTrue(result.isPresent());
         assertEquals(testUser, result.get());
+        verifyNoInteractions(passwordHashingExecutor);
     }
 
     @Test
-    void authenticateUser_InvalidPassword_ReturnsEmpty() {
+    void authenticateUser_OutdatedHash_IsUpgraded() {
+        // Arrange
+        testUser.setStatus(UserStatus.ACTIVE);
+        when(passwordEncoder.upgradeEncoding("hashed-password")).thenReturn(true);
+        when(passwordHashingExecutor.encode("password123"))
+            .thenReturn(CompletableFuture.completedFuture("{bcrypt}rehashed-password"));
+
+        // Act
+        Optional<User> result = userService.authenticateUser(testUser, "password123", true);
+
+        // Assert - hashed on the pool, then a conditional update of its own, not a change to the login's entity
+        assertTrue(result.isPresent());
+        assertEquals("hashed-password", testUser.getPasswordHash());
+        verify(userRepository).updatePasswordHash("user-123", "hashed-password", "{bcrypt}rehashed-password");
+        verify(userRepository, never()).save(any());
+        verify(passwordEncoder, never()).encode(any());
+    }
+
+    @Test
+    void authenticateUser_HashUpgradeWriteFails_LoginStillSucceeds() {
+        // Arrange
+        testUser.setStatus(UserStatus.ACTIVE);
+        when(passwordEncoder.upgradeEncoding("hashed-password")).thenReturn(true);
+        when(passwordHashingExecutor.encode("password123"))
+            .thenReturn(CompletableFuture.completedFuture("{bcrypt}rehashed-password"));
+        when(userRepository.updatePasswordHash(anyString(), anyString(), anyString()))
+            .thenThrow(new IllegalStateException("connection reset"));
+
+        // Act
+        Optional<User> result = userService.authenticateUser(testUser, "password123", true);
+
+        // Assert - the upgrade's own transaction rolled back; the login returns the user
+        assertTrue(result.isPresent());
+        assertEquals(testUser, result.get());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void authenticateUser_HashingQueueFull_UpgradeDeferred() {
+        // Arrange
+        testUser.setStatus(UserStatus.ACTIVE);
+        when(passwordEncoder.upgradeEncoding("hashed-password")).thenReturn(true);
+        when(passwordHashingExecutor.encode("password123")).thenThrow(new RejectedExecutionException());
+
+        // Act
+        Optional<User> result = userService.authenticateUser(testUser, "password123", true);
+
+        // Assert
+        assertTrue(result.isPresent());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void findLoginCandidate_EmailFilterMiss_SkipsLookup() {
+        // Arrange
+        when(registeredEmailFilter.mightBeRegistered("unknown@example.com")).thenReturn(false);
+
+        // Act
+        Optional<User> result = userService.findLoginCandidate("unknown@example.com");
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(userRepository, passwordEncoder);
+    }
+
+    @Test
+    void findLoginCandidate_KnownEmail_ReturnsUser() {
         // Arrange
         when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches("wrongpassword", "hashed-password")).thenReturn(false);
 
         // Act
-        Optional<User> result = userService.authenticateUser("test@example.com", "wrongpassword");
+        Optional<User> result = userService.findLoginCandidate("test@example.com");
+
+        // Assert
+        assertEquals(Optional.of(testUser), result);
+        verifyNoInteractions(passwordEncoder, passwordHashingExecutor);
+    }
+
+    @Test
+    void authenticateUser_InvalidPassword_ReturnsEmpty() {
+        // Act
+        Optional<User> result = userService.authenticateUser(testUser, "wrongpassword", false);
 
         // Assert
         assertTrue(result.isEmpty());
@@ -128,13 +284,11 @@ class UserServiceTest {
     void authenticateUser_UserNotActive_ThrowsException() {
         // Arrange
         testUser.setStatus(UserStatus.PENDING);
-        when(userRepository.findByEmailIgnoreCase("test@example.com")).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches("password123", "hashed-password")).thenReturn(true);
 
         // Act & Assert
-        IllegalStateException exception = assertThrows(
-            IllegalStateException.class,
-            () -> userService.authenticateUser("test@example.com", "password123")
+        AccountNotActiveException exception = assertThrows(
+            AccountNotActiveException.class,
+            () -> userService.authenticateUser(testUser, "password123", true)
         );
 
         assertTrue(exception.getMessage().contains("User account is not active"));
@@ -157,6 +311,7 @@ class UserServiceTest {
         verify(userRepository).save(any(User.class));
         verify(auditLogRepository).save(any());
         verify(eventPublisher).publishUserApprovedEvent(any(User.class), eq(adminId));
+        verify(refreshTokenCache).evictUser("user-123");
     }
 
     @Test
@@ -165,8 +320,8 @@ class UserServiceTest {
         when(userRepository.findById("user-123")).thenReturn(Optional.empty());
 
         // Act & Assert
-        IllegalArgumentException exception = assertThrows(
-            IllegalArgumentException.class,
+        UserNotFoundException exception = assertThrows(
+            UserNotFoundException.class,
             () -> userService.approveUser("user-123", "admin-123", "reason")
         );
 
@@ -180,8 +335,8 @@ class UserServiceTest {
         when(userRepository.findById("user-123")).thenReturn(Optional.of(testUser));
 
         // Act & Assert
-        IllegalStateException exception = assertThrows(
-            IllegalStateException.class,
+        InvalidUserStateException exception = assertThrows(
+            InvalidUserStateException.class,
             () -> userService.approveUser("user-123", "admin-123", "reason")
         );
 
@@ -0,0 +1,80 @@
+package com.useronboard.service.tools;
+
+import com.useronboard.service.security.BreachedPasswordFilter;
+import com.useronboard.service.util.MappedBloomFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BreachedPasswordFilterBuilderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void load_Sha1Corpus_BuildsAFilterTheScreenReads() throws Exception {
+        // Arrange - Pwned Passwords lines with counts, CRLF endings and one malformed line
+        String corpus = sha1Hex("password123") + ":2413945\r\n"
+                + sha1Hex("hunter2").toLowerCase() + "\r\n"
+                + "not-a-hash:17\r\n"
+                + sha1Hex("pässwörd🔑");
+        Path file = tempDir.resolve("breached.bloom");
+        MappedBloomFilter filter = MappedBloomFilter.create(file, 1000, 0.0001);
+
+        // Act
+        long skipped = BreachedPasswordFilterBuilder.load(stream(corpus), filter, false);
+        filter.finish();
+        BreachedPasswordFilter screen = new BreachedPasswordFilter(file.toString(), new SimpleMeterRegistry());
+
+        // Assert
+        assertEquals(1, skipped);
+        assertEquals(3, filter.elements());
+        assertTrue(screen.isBreached("password123"));
+        assertTrue(screen.isBreached("hunter2"));
+        assertTrue(screen.isBreached("pässwörd🔑"));
+        assertFalse(screen.isBreached("correct horse battery staple"));
+    }
+
+    @Test
+    void load_PlainCorpus_HashesEachLine() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("plain.bloom");
+        MappedBloomFilter filter = MappedBloomFilter.create(file, 1000, 0.0001);
+
+        // Act
+        long skipped = BreachedPasswordFilterBuilder.load(stream("letmein\n\nqwerty\n"), filter, true);
+        filter.finish();
+        BreachedPasswordFilter screen = new BreachedPasswordFilter(file.toString(), new SimpleMeterRegistry());
+
+        // Assert
+        assertEquals(1, skipped);
+        assertTrue(screen.isBreached("letmein"));
+        assertTrue(screen.isBreached("qwerty"));
+        assertFalse(screen.isBreached("Tr0ub4dor&3"));
+    }
+
+    @Test
+    void screen_WithoutCorpus_IsDisabled() {
+        BreachedPasswordFilter screen = new BreachedPasswordFilter("", new SimpleMeterRegistry());
+
+        assertFalse(screen.isEnabled());
+        assertFalse(screen.isBreached("password123"));
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha1Hex(String password) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-1").digest(password.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().withUpperCase().formatHex(digest);
+    }
+}
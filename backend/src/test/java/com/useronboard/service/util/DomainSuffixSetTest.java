@@ -0,0 +1,54 @@
+package com.useronboard.service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DomainSuffixSetTest {
+
+    private final DomainSuffixSet set = DomainSuffixSet.of(List.of("mailinator.com", "*.guerrillamail.org", "10minutemail.net."));
+
+    @Test
+    void matches_ListedDomainAndItsSubdomains() {
+        assertTrue(set.matches("bot@mailinator.com"));
+        assertTrue(set.matches("bot@eu.mx.Mailinator.COM"));
+        assertTrue(set.matches("bot@guerrillamail.org"));
+        assertTrue(set.matches("10minutemail.net"));
+    }
+
+    @Test
+    void matches_OnlyAtLabelBoundaries() {
+        assertFalse(set.matches("jane@notmailinator.com"));
+        assertFalse(set.matches("jane@mailinator.com.example.org"));
+        assertFalse(set.matches("mailinator.com@example.com"));
+        assertFalse(set.matches("jane@com"));
+        assertFalse(set.matches("jane@"));
+    }
+
+    @Test
+    void matchStart_PointsAtTheListedDomain() {
+        String email = "bot@eu.mailinator.com";
+
+        assertEquals("mailinator.com", email.substring(set.matchStart(email)));
+    }
+
+    @Test
+    void load_SkipsCommentsBlankLinesAndDuplicates() throws Exception {
+        // Arrange
+        Path file = Files.createTempFile("domains", ".txt");
+        Files.writeString(file, "# disposable domains\n\nyopmail.com\r\nYOPMAIL.com  # again\n  trashmail.de\n");
+
+        // Act
+        DomainSuffixSet loaded = DomainSuffixSet.load(file);
+
+        // Assert
+        assertEquals(2, loaded.size());
+        assertTrue(loaded.matches("bot@yopmail.com"));
+        assertTrue(loaded.matches("bot@trashmail.de"));
+        Files.delete(file);
+    }
+}
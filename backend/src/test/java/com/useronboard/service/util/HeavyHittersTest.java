@@ -0,0 +1,72 @@
+package com.useronboard.service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHittersTest {
+
+    @Test
+    void top_FindsTheHeavyKeysAmongManyDistinctOnes() {
+        // Arrange - a spray of 100k one-off keys around three hammered ones
+        HeavyHitters hitters = new HeavyHitters(3, 2048, 4);
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            hitters.add("spray-" + i);
+            if (i % 100 == 0) {
+                hitters.add("victim@example.com");
+            }
+            if (i % 200 == 0) {
+                hitters.add("10.0.0.1");
+            }
+            if (i % 400 == 0) {
+                hitters.add("admin@example.com");
+            }
+        }
+
+        // Assert - estimates never undercount and overcount by at most ~e/width of the total
+        List<HeavyHitters.Entry> top = hitters.top();
+        assertEquals(List.of("victim@example.com", "10.0.0.1", "admin@example.com"),
+                top.stream().map(HeavyHitters.Entry::key).toList());
+        assertTrue(top.get(0).count() >= 1000 && top.get(0).count() < 1000 + 2 * 101_750 / 2048);
+    }
+
+    @Test
+    void decay_ScalesCountsAndDropsKeysThatReachZero() {
+        // Arrange
+        HeavyHitters hitters = new HeavyHitters(10, new CountMinSketch(1024, 4, 42));
+        for (int i = 0; i < 8; i++) {
+            hitters.add("attacker");
+        }
+        hitters.add("typo");
+
+        // Act
+        hitters.decay(0.5);
+
+        // Assert
+        assertEquals(List.of(new HeavyHitters.Entry("attacker", 4)), hitters.top());
+        assertEquals(4, hitters.estimate("attacker"));
+        assertEquals(0, hitters.estimate("typo"));
+    }
+
+    @Test
+    void add_FullHeap_ReplacesTheSmallestOnlyWhenOvertaken() {
+        // Arrange
+        HeavyHitters hitters = new HeavyHitters(2, new CountMinSketch(1024, 4, 42));
+        hitters.add("a");
+        hitters.add("a");
+        hitters.add("b");
+
+        // Act
+        hitters.add("c");
+        List<HeavyHitters.Entry> tie = hitters.top();
+        hitters.add("c");
+
+        // Assert
+        assertEquals(List.of("a", "b"), tie.stream().map(HeavyHitters.Entry::key).toList());
+        assertEquals(List.of("a", "c"), hitters.top().stream().map(HeavyHitters.Entry::key).toList());
+    }
+}
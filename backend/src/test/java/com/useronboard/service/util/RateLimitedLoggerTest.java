@@ -0,0 +1,61 @@
+package com.useronboard.service.util;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitedLoggerTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private ListAppender<ILoggingEvent> appender;
+    private RateLimitedLogger rateLimitedLogger;
+
+    @BeforeEach
+    void setUp() {
+        Logger logger = new LoggerContext().getLogger("auth-failures");
+        appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        rateLimitedLogger = new RateLimitedLogger(logger, 2, Duration.ofSeconds(1), nanoTime::get);
+    }
+
+    @Test
+    void warn_OverTheCap_DropsMessagesUntilTheNextWindow() {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            rateLimitedLogger.warn("Login failed for {}", "user-" + i);
+        }
+
+        // Assert
+        assertEquals(List.of("Login failed for user-0", "Login failed for user-1"), messages());
+    }
+
+    @Test
+    void warn_NextWindow_ReportsHowManyWereSuppressed() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            rateLimitedLogger.warn("Login failed for {}", "user-" + i);
+        }
+
+        // Act
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        rateLimitedLogger.warn("Login failed for {}", "user-5");
+
+        // Assert
+        assertEquals(List.of("Login failed for user-0", "Login failed for user-1",
+                "3 similar messages suppressed", "Login failed for user-5"), messages());
+    }
+
+    private List<String> messages() {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+    }
+}